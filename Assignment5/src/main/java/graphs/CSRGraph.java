@@ -0,0 +1,747 @@
+package graphs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Frozen, read-optimized copy of a DirectedGraph in compressed sparse row (CSR) format.
+ * Vertices are identified by a dense index 0..numVertices-1 and all out-going edges of vertex v
+ * are stored consecutively at positions offsets[v]..offsets[v+1]-1 of the primitive edge arrays.
+ * Edge weights are materialized once per named weight profile into a double[] that is aligned with the edge arrays.
+ * Searches return the same DGPath results as the equivalent searches on the source graph.
+ */
+public class CSRGraph<V extends Identifiable, E> {
+    private final DirectedGraph<V, E> source;           // the graph that has been frozen, used to construct paths
+    private final int sourceModCount;                   // the number of structural changes of source when frozen
+    private final Object[] vertices;                    // vertices[v] = the vertex with index v
+    private final Map<String, Integer> indexById = new HashMap<>();
+    private final int[] offsets;                        // out-going edges of v are at offsets[v]..offsets[v+1]-1
+    private final int[] targets;                        // targets[e] = index of the target vertex of edge e
+    private final Object[] edges;                       // edges[e] = the edge information of edge e
+    private final Map<String, double[]> weightProfiles = new HashMap<>();
+    // workspaces of the parallel searches of distanceMatrix, which are reused by all its later calls
+    private final Queue<SearchWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+    private volatile ComponentIndex<V, E> componentIndex;  // built lazily, on the arrays of this graph
+
+    /**
+     * representation invariants:
+     * 1. offsets.length == vertices.length + 1, offsets[0] == 0 and offsets[vertices.length] == targets.length
+     * 2. indexById.get(vertices[v].getId()) == v for all v
+     * 3. targets, edges and all weight profile arrays have the same length
+     * 4. the out-going edges of each vertex appear in the same order as in the source graph
+     */
+
+    public CSRGraph(DirectedGraph<V, E> source) {
+        this.source = source;
+        this.sourceModCount = source.getModCount();
+        int numVertices = source.getNumVertices();
+        int numEdges = source.getNumEdges();
+        this.vertices = new Object[numVertices];
+        this.offsets = new int[numVertices + 1];
+        this.targets = new int[numEdges];
+        this.edges = new Object[numEdges];
+
+        // first assign the dense vertex indices
+        int v = 0;
+        for (V vertex : source.getVertices()) {
+            this.vertices[v] = vertex;
+            this.indexById.put(vertex.getId(), v);
+            v++;
+        }
+
+        // then copy the out-going edges of each vertex into consecutive rows
+        int e = 0;
+        for (v = 0; v < numVertices; v++) {
+            this.offsets[v] = e;
+            for (Map.Entry<V, E> edge : source.getOutgoingEdges(this.getVertex(v)).entrySet()) {
+                this.targets[e] = this.indexById.get(edge.getKey().getId());
+                this.edges[e] = edge.getValue();
+                e++;
+            }
+        }
+        this.offsets[numVertices] = e;
+    }
+
+    /**
+     * materializes the weights of all edges by the given weight mapper into a named profile
+     * profiles should be added before the graph is shared between threads
+     * @param name          the name by which searches refer to this profile
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  this graph, such that profiles can be added in a chain
+     */
+    public CSRGraph<V, E> addWeightProfile(String name, Function<E, Double> weightMapper) {
+        double[] weights = new double[this.edges.length];
+        for (int e = 0; e < weights.length; e++) {
+            weights[e] = weightMapper.apply(this.getEdge(e));
+        }
+        this.weightProfiles.put(name, weights);
+        return this;
+    }
+
+    /**
+     * materializes the weights of all edges by the given profile, under the name of that profile
+     * profiles should be added before the graph is shared between threads
+     * @param profile   provides the weight of every edge
+     * @return  this graph, such that profiles can be added in a chain
+     */
+    public CSRGraph<V, E> addWeightProfile(WeightProfile<E> profile) {
+        double[] weights = new double[this.edges.length];
+        for (int e = 0; e < weights.length; e++) {
+            weights[e] = profile.applyAsDouble(this.getEdge(e));
+        }
+        this.weightProfiles.put(profile.getName(), weights);
+        return this;
+    }
+
+    public boolean hasWeightProfile(String name) {
+        return this.weightProfiles.containsKey(name);
+    }
+
+    /**
+     * @param name
+     * @return  the weights of all edges in the profile, aligned with the edge indices
+     * @throws IllegalArgumentException if no profile with the name has been added
+     */
+    public double[] getWeights(String name) {
+        double[] weights = this.weightProfiles.get(name);
+        if (weights == null) throw new IllegalArgumentException("unknown weight profile: " + name);
+        return weights;
+    }
+
+    public DirectedGraph<V, E> getSource() {
+        return this.source;
+    }
+
+    /**
+     * @return  whether vertices or edges have been added to or removed from the source graph after it was frozen
+     *          changes of the edge information itself are not detected
+     */
+    public boolean isOutdated() {
+        return this.source.getModCount() != this.sourceModCount;
+    }
+
+    public int getNumVertices() {
+        return this.vertices.length;
+    }
+
+    /**
+     * provides the strongly and weakly connected components of this frozen graph
+     * the index is built on first use, and shares the vertex indices and edge arrays of this graph
+     * @return
+     */
+    public ComponentIndex<V, E> getComponentIndex() {
+        ComponentIndex<V, E> index = this.componentIndex;
+        if (index == null) {
+            index = new ComponentIndex<>(this.source, this.sourceModCount, this.indexById, this.offsets, this.targets);
+            this.componentIndex = index;
+        }
+        return index;
+    }
+
+    public int getNumEdges() {
+        return this.targets.length;
+    }
+
+    /**
+     * @param id
+     * @return  the dense index of the vertex with the given id, or -1 if it cannot be found
+     */
+    public int indexOf(String id) {
+        Integer index = this.indexById.get(id);
+        return index != null ? index : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getVertex(int v) {
+        return (V) this.vertices[v];
+    }
+
+    @SuppressWarnings("unchecked")
+    public E getEdge(int e) {
+        return (E) this.edges[e];
+    }
+
+    // the range of out-going edges of vertex v is firstEdge(v)..endEdge(v)-1
+    public int firstEdge(int v) {
+        return this.offsets[v];
+    }
+
+    public int endEdge(int v) {
+        return this.offsets[v + 1];
+    }
+
+    public int getTarget(int e) {
+        return this.targets[e];
+    }
+
+    /**
+     * @return  a new workspace that fits the searches on this graph
+     */
+    public SearchWorkspace newWorkspace() {
+        return new SearchWorkspace(this.vertices.length);
+    }
+
+    private void checkWorkspace(SearchWorkspace workspace) {
+        if (workspace.getCapacity() < this.vertices.length) {
+            throw new IllegalArgumentException(String.format("workspace capacity %d is too small for %d vertices",
+                    workspace.getCapacity(), this.vertices.length));
+        }
+    }
+
+    /**
+     * Uses an iterative depth-first search to find a path from the start vertex to the target vertex
+     * with the same visiting order and results as DirectedGraph.depthFirstSearch
+     * @param startId
+     * @param targetId
+     * @return  the path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DirectedGraph<V, E>.DGPath depthFirstSearch(String startId, String targetId) {
+        return this.depthFirstSearch(startId, targetId, this.newWorkspace());
+    }
+
+    /**
+     * depth-first search that reuses the state arrays of the given workspace
+     * @param startId
+     * @param targetId
+     * @param workspace
+     * @return  the path from start to target, or null if no path can be found
+     */
+    public DirectedGraph<V, E>.DGPath depthFirstSearch(String startId, String targetId, SearchWorkspace workspace) {
+        this.checkWorkspace(workspace);
+        int start = this.indexOf(startId);
+        int target = this.indexOf(targetId);
+        if (start < 0 || target < 0) return null;
+        SearchStatistics statistics = this.source.startStatistics("depthFirstSearch");
+        if (!this.getComponentIndex().isWeaklyConnected(start, target)) {
+            return this.source.endStatistics(null, statistics);
+        }
+
+        DirectedGraph<V, E>.DGPath path = this.source.new DGPath();
+        workspace.begin();
+
+        // the stack holds the current path; cursor[i] is the next edge to explore from stack[i]
+        int[] stack = workspace.vertexQueue;
+        int[] cursor = workspace.edgeCursor;
+        int top = 0;
+        stack[0] = start;
+        cursor[0] = this.offsets[start];
+        workspace.reach(start, 0.0, -1);
+        path.getVisited().add(this.getVertex(start));
+        if (statistics != null) {
+            statistics.countPush(top + 1);
+            statistics.countSettled();
+        }
+
+        while (top >= 0) {
+            int v = stack[top];
+            if (v == target) {
+                for (int i = top; i >= 0; i--) {
+                    path.addFirst(this.getVertex(stack[i]));
+                }
+                return this.source.endStatistics(path, statistics);
+            }
+            if (cursor[top] == this.offsets[v + 1]) {
+                // all neighbours have been explored, backtrack
+                top--;
+                if (statistics != null) statistics.countPop();
+                continue;
+            }
+            int neighbour = this.targets[cursor[top]++];
+            if (statistics != null) statistics.countRelaxation();
+            if (!workspace.isReached(neighbour)) {
+                workspace.reach(neighbour, top + 1, v);
+                path.getVisited().add(this.getVertex(neighbour));
+                top++;
+                stack[top] = neighbour;
+                cursor[top] = this.offsets[neighbour];
+                if (statistics != null) {
+                    statistics.countPush(top + 1);
+                    statistics.countSettled();
+                }
+            }
+        }
+
+        return this.source.endStatistics(null, statistics);
+    }
+
+    /**
+     * Uses a breadth-first search to find a path with the minimum number of edges from the start vertex
+     * to the target vertex, with the same results as DirectedGraph.breadthFirstSearch
+     * @param startId
+     * @param targetId
+     * @return  the path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DirectedGraph<V, E>.DGPath breadthFirstSearch(String startId, String targetId) {
+        return this.breadthFirstSearch(startId, targetId, this.newWorkspace());
+    }
+
+    /**
+     * breadth-first search that reuses the state arrays of the given workspace
+     * @param startId
+     * @param targetId
+     * @param workspace
+     * @return  the path from start to target, or null if no path can be found
+     */
+    public DirectedGraph<V, E>.DGPath breadthFirstSearch(String startId, String targetId, SearchWorkspace workspace) {
+        this.checkWorkspace(workspace);
+        int start = this.indexOf(startId);
+        int target = this.indexOf(targetId);
+        if (start < 0 || target < 0) return null;
+        SearchStatistics statistics = this.source.startStatistics("breadthFirstSearch");
+        if (!this.getComponentIndex().isWeaklyConnected(start, target)) {
+            return this.source.endStatistics(null, statistics);
+        }
+
+        DirectedGraph<V, E>.DGPath path = this.source.new DGPath();
+        path.addFirst(this.getVertex(target));
+
+        // easy target
+        if (start == target) {
+            path.getVisited().add(this.getVertex(start));
+            return this.source.endStatistics(path, statistics);
+        }
+
+        // the fifo queue is an array, because every vertex is enqueued at most once
+        workspace.begin();
+        int[] queue = workspace.vertexQueue;
+        int head = 0, tail = 0;
+
+        queue[tail++] = start;
+        workspace.reach(start, 0.0, -1);
+        if (statistics != null) statistics.countPush(tail - head);
+
+        while (head < tail) {
+            int current = queue[head++];
+            if (statistics != null) statistics.countPop();
+            for (int e = this.offsets[current]; e < this.offsets[current + 1]; e++) {
+                int neighbour = this.targets[e];
+                if (statistics != null) statistics.countRelaxation();
+                if (neighbour == target) {
+                    for (int v = current; v >= 0; v = workspace.fromVertex[v]) {
+                        path.addFirst(this.getVertex(v));
+                    }
+                    if (statistics != null) statistics.countSettled();
+                    return this.source.endStatistics(path, statistics);
+                } else if (!workspace.isReached(neighbour)) {
+                    path.getVisited().add(this.getVertex(neighbour));
+                    workspace.reach(neighbour, workspace.weightSumTo[current] + 1, current);
+                    queue[tail++] = neighbour;
+                    if (statistics != null) statistics.countPush(tail - head);
+                }
+            }
+            if (statistics != null) statistics.countSettled();
+        }
+
+        return this.source.endStatistics(null, statistics);
+    }
+
+    /**
+     * Uses a level-synchronous parallel breadth-first search to find a path with the minimum number of edges
+     * from the start vertex to the target vertex, with the same path and visited vertices
+     * as DirectedGraph.breadthFirstSearch.
+     * Every level is expanded completely, so the statistics of the search count the vertices and edges
+     * of all levels before the target, and the size of the largest level as the peak frontier.
+     * @param startId
+     * @param targetId
+     * @return  the path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DirectedGraph<V, E>.DGPath parallelBreadthFirstSearch(String startId, String targetId) {
+        int start = this.indexOf(startId);
+        int target = this.indexOf(targetId);
+        if (start < 0 || target < 0) return null;
+        SearchStatistics statistics = this.source.startStatistics("parallelBreadthFirstSearch");
+        if (!this.getComponentIndex().isWeaklyConnected(start, target)) {
+            return this.source.endStatistics(null, statistics);
+        }
+
+        DirectedGraph<V, E>.DGPath path = this.source.new DGPath();
+        path.addFirst(this.getVertex(target));
+
+        // easy target
+        if (start == target) {
+            path.getVisited().add(this.getVertex(start));
+            return this.source.endStatistics(path, statistics);
+        }
+
+        ParallelBFS search = new ParallelBFS(start, target);
+        search.run();
+        if (statistics != null) search.countStatistics(statistics);
+        if (search.hops[target] < 0) return this.source.endStatistics(null, statistics);
+
+        // the sequential search would have visited all vertices that precede the target in breadth-first order
+        for (int i = 1; search.order[i] != target; i++) {
+            path.getVisited().add(this.getVertex(search.order[i]));
+        }
+        for (int v = search.parent[target]; v >= 0; v = search.parent[v]) {
+            path.addFirst(this.getVertex(v));
+        }
+        return this.source.endStatistics(path, statistics);
+    }
+
+    /**
+     * calculates the minimum number of edges from start to every vertex,
+     * by a level-synchronous parallel breadth-first search
+     * @param start     index of the start vertex
+     * @return  hops[v] = the minimum number of edges on a path from start to v,
+     *          -1 if v cannot be reached from start
+     * @throws IllegalArgumentException if start is not the index of a vertex in the graph
+     */
+    public int[] hopCounts(int start) {
+        if (start < 0 || start >= this.vertices.length) {
+            throw new IllegalArgumentException(String.format("vertex index %d is out of range for %d vertices",
+                    start, this.vertices.length));
+        }
+        ParallelBFS search = new ParallelBFS(start, -1);
+        search.run();
+        return search.hops;
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target according to Dijkstra's algorithm
+     * with the same results as DirectedGraph.dijkstraShortestPath:
+     * targets in another weakly connected component are rejected without any search,
+     * and the statistics of the search are collected if the source graph is collecting statistics
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param profile       name of the weight profile that provides the edge weights
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DirectedGraph<V, E>.DGPath dijkstraShortestPath(String startId, String targetId, String profile) {
+        return this.dijkstraShortestPath(startId, targetId, profile, this.newWorkspace());
+    }
+
+    /**
+     * dijkstra search that reuses the state arrays and priority queue of the given workspace
+     * @param startId
+     * @param targetId
+     * @param profile
+     * @param workspace
+     * @return  the shortest path from start to target, or null if no path can be found
+     */
+    public DirectedGraph<V, E>.DGPath dijkstraShortestPath(String startId, String targetId, String profile,
+                                                           SearchWorkspace workspace) {
+        this.checkWorkspace(workspace);
+        double[] weights = this.getWeights(profile);
+        int start = this.indexOf(startId);
+        int target = this.indexOf(targetId);
+        if (start < 0 || target < 0) return null;
+        SearchStatistics statistics = this.source.startStatistics("dijkstra");
+        if (!this.getComponentIndex().isWeaklyConnected(start, target)) {
+            return this.source.endStatistics(null, statistics);
+        }
+
+        DirectedGraph<V, E>.DGPath path = this.source.new DGPath();
+        path.getVisited().add(this.getVertex(start));
+
+        // easy target
+        if (start == target) {
+            path.addFirst(this.getVertex(start));
+            return this.source.endStatistics(path, statistics);
+        }
+
+        workspace.begin();
+        IndexMinPQ frontier = workspace.frontier;
+        double[] weightSumTo = workspace.weightSumTo;
+        workspace.reach(start, 0.0, -1);
+        frontier.insert(start, 0.0);
+        if (statistics != null) statistics.countPush(frontier.size());
+
+        while (!frontier.isEmpty()) {
+            int v = frontier.delMin();
+            workspace.settle(v);
+            if (statistics != null) {
+                statistics.countPop();
+                statistics.countSettled();
+            }
+
+            // if we hit the target: complete the path and bail out
+            if (v == target) {
+                path.setTotalWeight(weightSumTo[v]);
+                for (int u = v; u >= 0; u = workspace.fromVertex[u]) {
+                    path.addFirst(this.getVertex(u));
+                }
+                return this.source.endStatistics(path, statistics);
+            }
+
+            // relax the edges towards all neighbours
+            for (int e = this.offsets[v]; e < this.offsets[v + 1]; e++) {
+                int neighbour = this.targets[e];
+                double distance = weightSumTo[v] + weights[e];
+                if (statistics != null) statistics.countRelaxation();
+                if (!workspace.isReached(neighbour)) {
+                    path.getVisited().add(this.getVertex(neighbour));
+                } else if (workspace.isSettled(neighbour) || distance >= weightSumTo[neighbour]) {
+                    continue;
+                }
+                workspace.reach(neighbour, distance, v);
+                frontier.insertOrDecrease(neighbour, distance);
+                if (statistics != null) statistics.countPush(frontier.size());
+            }
+        }
+
+        // no path found
+        return this.source.endStatistics(null, statistics);
+    }
+
+    /**
+     * Calculates the weights of the shortest paths from the start vertex to all vertices that are marked as target,
+     * by a dijkstra search that completes as soon as all targets have been settled
+     * @param start         index of the start vertex
+     * @param targets       indices of the target vertices
+     * @param isTarget      isTarget[v] indicates whether v occurs in targets
+     * @param numTargets    the number of distinct vertices in targets
+     * @param weights       the edge weights of a weight profile
+     * @param workspace
+     * @return  the weights of the shortest paths in the order of targets,
+     *          Double.POSITIVE_INFINITY for a target that cannot be reached
+     */
+    private double[] shortestDistances(int start, int[] targets, boolean[] isTarget, int numTargets,
+                                       double[] weights, SearchWorkspace workspace) {
+        workspace.begin();
+        IndexMinPQ frontier = workspace.frontier;
+        double[] weightSumTo = workspace.weightSumTo;
+        workspace.reach(start, 0.0, -1);
+        frontier.insert(start, 0.0);
+
+        int targetsSettled = 0;
+        while (!frontier.isEmpty() && targetsSettled < numTargets) {
+            int v = frontier.delMin();
+            workspace.settle(v);
+            if (isTarget[v]) targetsSettled++;
+
+            for (int e = this.offsets[v]; e < this.offsets[v + 1]; e++) {
+                int neighbour = this.targets[e];
+                double distance = weightSumTo[v] + weights[e];
+                if (workspace.isReached(neighbour) &&
+                        (workspace.isSettled(neighbour) || distance >= weightSumTo[neighbour])) {
+                    continue;
+                }
+                workspace.reach(neighbour, distance, v);
+                frontier.insertOrDecrease(neighbour, distance);
+            }
+        }
+
+        double[] distances = new double[targets.length];
+        for (int t = 0; t < targets.length; t++) {
+            distances[t] = workspace.isSettled(targets[t]) ? weightSumTo[targets[t]] : Double.POSITIVE_INFINITY;
+        }
+        return distances;
+    }
+
+    /**
+     * Calculates the weights of the shortest paths between all sources and all targets.
+     * The one-to-many searches from the sources run in parallel on the common fork/join pool,
+     * where every task reuses a single workspace for all the sources it processes.
+     * The workspaces are kept with this graph, for reuse by later calls.
+     * @param sources   indices of the start vertices
+     * @param targets   indices of the target vertices
+     * @param profile   name of the weight profile that provides the edge weights
+     * @return  matrix[s][t] = weight of the shortest path from sources[s] to targets[t],
+     *          Double.POSITIVE_INFINITY if targets[t] cannot be reached from sources[s]
+     */
+    public double[][] distanceMatrix(int[] sources, int[] targets, String profile) {
+        double[] weights = this.getWeights(profile);
+        boolean[] isTarget = new boolean[this.vertices.length];
+        int numTargets = 0;
+        for (int target : targets) {
+            if (!isTarget[target]) numTargets++;
+            isTarget[target] = true;
+        }
+
+        double[][] matrix = new double[sources.length][];
+        ForkJoinPool.commonPool().invoke(new DistanceMatrixTask(sources, targets, isTarget, numTargets,
+                weights, matrix, 0, sources.length));
+        return matrix;
+    }
+
+    // helper class for a level-synchronous parallel breadth-first search
+    // every level of the frontier is split into chunks, which are expanded in parallel in two phases:
+    // 1.   every chunk collects the unvisited neighbours of its vertices as candidates of the next level
+    //      and claims ownership of each candidate for the lowest frontier position that discovered it
+    // 2.   every chunk keeps the candidates that it owns, marks them as visited and registers their parent
+    // The kept candidates of all chunks are concatenated into the next level in chunk order,
+    // which reproduces the order of the fifo queue of a sequential breadth-first search exactly.
+    private class ParallelBFS {
+        private static final int CHUNK_SIZE = 1024;             // frontier vertices per chunk
+        private final int target;                               // -1 for a search to all vertices
+        private final int[] order;                              // all reached vertices in breadth-first order
+        private final int[] hops;                               // -1 for vertices that have not been reached
+        private final int[] parent;                             // -1 for the start vertex
+        private final AtomicLongArray visited;                  // bitmap of all reached vertices
+        private final AtomicIntegerArray owner;                 // lowest order position that discovered a candidate
+        private final int[] candidates;                         // candidates of each chunk, in edge order
+        private final int[] candidateFrom;                      // order position that discovered each candidate
+        private int numExpanded = 0;                            // vertices of which the edges have been explored
+        private int numReached = 1;                             // vertices in order
+
+        private ParallelBFS(int start, int target) {
+            int numVertices = vertices.length;
+            this.target = target;
+            this.order = new int[numVertices];
+            this.hops = new int[numVertices];
+            this.parent = new int[numVertices];
+            this.visited = new AtomicLongArray((numVertices + 63) >>> 6);
+            this.owner = new AtomicIntegerArray(numVertices);
+            this.candidates = new int[targets.length];
+            this.candidateFrom = new int[targets.length];
+            Arrays.fill(this.hops, -1);
+            for (int v = 0; v < numVertices; v++) this.owner.set(v, Integer.MAX_VALUE);
+
+            this.order[0] = start;
+            this.hops[start] = 0;
+            this.parent[start] = -1;
+            this.markVisited(start);
+        }
+
+        private boolean isVisited(int v) {
+            return (this.visited.get(v >>> 6) & (1L << v)) != 0;
+        }
+
+        private void markVisited(int v) {
+            long bit = 1L << v;
+            this.visited.getAndAccumulate(v >>> 6, bit, (word, b) -> word | b);
+        }
+
+        private void run() {
+            int levelStart = 0, levelEnd = 1;
+            while (levelStart < levelEnd && (this.target < 0 || this.hops[this.target] < 0)) {
+                final int lo = levelStart, hi = levelEnd;
+                int numChunks = (hi - lo + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+                // every chunk writes its candidates into its own range of the buffer,
+                // bounded by the total out-degree of its vertices
+                int[] bufferStart = new int[numChunks + 1];
+                for (int c = 0; c < numChunks; c++) {
+                    int chunkEnd = Math.min(hi, lo + (c + 1) * CHUNK_SIZE);
+                    int degree = 0;
+                    for (int i = lo + c * CHUNK_SIZE; i < chunkEnd; i++) {
+                        degree += offsets[this.order[i] + 1] - offsets[this.order[i]];
+                    }
+                    bufferStart[c + 1] = bufferStart[c] + degree;
+                }
+                int[] numCandidates = new int[numChunks];
+
+                forEachChunk(numChunks, c -> {
+                    int chunkEnd = Math.min(hi, lo + (c + 1) * CHUNK_SIZE);
+                    int count = 0;
+                    for (int i = lo + c * CHUNK_SIZE; i < chunkEnd; i++) {
+                        int current = this.order[i];
+                        for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                            int neighbour = targets[e];
+                            if (this.isVisited(neighbour)) continue;
+                            this.owner.accumulateAndGet(neighbour, i, Math::min);
+                            this.candidates[bufferStart[c] + count] = neighbour;
+                            this.candidateFrom[bufferStart[c] + count] = i;
+                            count++;
+                        }
+                    }
+                    numCandidates[c] = count;
+                });
+
+                forEachChunk(numChunks, c -> {
+                    int kept = 0;
+                    for (int k = bufferStart[c]; k < bufferStart[c] + numCandidates[c]; k++) {
+                        int neighbour = this.candidates[k];
+                        if (this.owner.get(neighbour) != this.candidateFrom[k]) continue;
+                        this.markVisited(neighbour);
+                        this.parent[neighbour] = this.order[this.candidateFrom[k]];
+                        this.hops[neighbour] = this.hops[this.parent[neighbour]] + 1;
+                        this.candidates[bufferStart[c] + kept++] = neighbour;
+                    }
+                    numCandidates[c] = kept;
+                });
+
+                levelStart = levelEnd;
+                for (int c = 0; c < numChunks; c++) {
+                    System.arraycopy(this.candidates, bufferStart[c], this.order, levelEnd, numCandidates[c]);
+                    levelEnd += numCandidates[c];
+                }
+                this.numExpanded = hi;
+                this.numReached = levelEnd;
+            }
+        }
+
+        // counts the work of the search afterwards, to keep the counters out of the parallel loops
+        private void countStatistics(SearchStatistics statistics) {
+            int levelStart = 0;
+            for (int i = 0; i < this.numReached; i++) {
+                if (this.hops[this.order[i]] != this.hops[this.order[levelStart]]) levelStart = i;
+                statistics.countPush(i - levelStart + 1);
+            }
+            for (int i = 0; i < this.numExpanded; i++) {
+                statistics.countPop();
+                for (int e = offsets[this.order[i]]; e < offsets[this.order[i] + 1]; e++) statistics.countRelaxation();
+                statistics.countSettled();
+            }
+        }
+
+        private void forEachChunk(int numChunks, IntConsumer action) {
+            if (numChunks == 1) action.accept(0);
+            else IntStream.range(0, numChunks).parallel().forEach(action);
+        }
+    }
+
+    // fork/join task that calculates the rows lo..hi-1 of a distance matrix
+    @SuppressWarnings("serial")
+    private class DistanceMatrixTask extends RecursiveAction {
+        private static final int ROWS_PER_TASK = 4;
+        private final int[] sources, targets;
+        private final boolean[] isTarget;
+        private final int numTargets;
+        private final double[] weights;
+        private final double[][] matrix;
+        private final int lo, hi;
+
+        private DistanceMatrixTask(int[] sources, int[] targets, boolean[] isTarget, int numTargets, double[] weights,
+                                   double[][] matrix, int lo, int hi) {
+            this.sources = sources;
+            this.targets = targets;
+            this.isTarget = isTarget;
+            this.numTargets = numTargets;
+            this.weights = weights;
+            this.matrix = matrix;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.hi - this.lo > ROWS_PER_TASK) {
+                int mid = (this.lo + this.hi) >>> 1;
+                invokeAll(new DistanceMatrixTask(this.sources, this.targets, this.isTarget, this.numTargets,
+                                this.weights, this.matrix, this.lo, mid),
+                        new DistanceMatrixTask(this.sources, this.targets, this.isTarget, this.numTargets,
+                                this.weights, this.matrix, mid, this.hi));
+                return;
+            }
+            SearchWorkspace workspace = workspaces.poll();
+            if (workspace == null) workspace = newWorkspace();
+            try {
+                for (int s = this.lo; s < this.hi; s++) {
+                    this.matrix[s] = shortestDistances(this.sources[s], this.targets, this.isTarget, this.numTargets,
+                            this.weights, workspace);
+                }
+            } finally {
+                workspaces.offer(workspace);
+            }
+        }
+    }
+}
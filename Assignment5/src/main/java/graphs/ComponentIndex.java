@@ -0,0 +1,250 @@
+package graphs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the strongly and weakly connected components of a graph.
+ * Vertices in the same strongly connected component can all reach each other,
+ * and no path exists between vertices in different weakly connected components,
+ * such that many reachability questions can be answered in O(1) without any search.
+ * The strongly connected components are found by an iterative version of Tarjan's algorithm,
+ * the weakly connected components by a union-find over all edges.
+ * The index is built in O(V+E) directly from the adjacency maps of a graph, and only keeps
+ * a component id per vertex: the adjacency arrays that are needed to build it are released afterwards.
+ * The index of a frozen graph shares the vertex numbering and adjacency arrays of that graph instead.
+ * @param <V>
+ * @param <E>
+ */
+public class ComponentIndex<V extends Identifiable, E> {
+    private final DirectedGraph<V, E> graph;
+    private final int modCount;                 // the number of structural changes of graph when indexed
+    private final Map<String, Integer> indexById;
+    private final int[] strongComponent;        // strongComponent[v] = id of the strongly connected component of v
+    private final int[] strongSizes;            // strongSizes[c] = number of vertices in strongly connected component c
+    private final int[] weakComponent;          // weakComponent[v] = id of the weakly connected component of v
+    private final int[] weakSizes;              // weakSizes[c] = number of vertices in weakly connected component c
+
+    /**
+     * representation invariants:
+     * 1. indexById numbers the vertices of the graph densely from 0
+     * 2. component ids are dense: 0 <= strongComponent[v] < strongSizes.length, and likewise for weak components
+     * 3. the strongly connected components are numbered in reverse topological order of the condensed graph:
+     *    if an edge leads from component c1 to another component c2, then c1 > c2
+     * 4. every strongly connected component is contained in a single weakly connected component
+     */
+
+    /**
+     * indexes the components of a graph of which the adjacency is given in compressed sparse row format
+     * @param graph     the graph that has been indexed
+     * @param modCount  the number of structural changes of graph when indexed
+     * @param indexById the dense index of every vertex, by its id
+     * @param offsets   the out-going edges of v lead to targets[offsets[v]..offsets[v+1]-1]
+     * @param targets
+     */
+    ComponentIndex(DirectedGraph<V, E> graph, int modCount, Map<String, Integer> indexById,
+                   int[] offsets, int[] targets) {
+        this.graph = graph;
+        this.modCount = modCount;
+        this.indexById = indexById;
+        int numVertices = offsets.length - 1;
+        this.strongComponent = new int[numVertices];
+        this.weakComponent = new int[numVertices];
+        this.strongSizes = this.findStrongComponents(offsets, targets);
+        this.weakSizes = this.findWeakComponents(offsets, targets);
+    }
+
+    /**
+     * indexes the components of a graph directly from its adjacency maps,
+     * via temporary adjacency arrays that are released once the components have been found
+     * @param graph
+     * @return
+     */
+    static <V extends Identifiable, E> ComponentIndex<V, E> of(DirectedGraph<V, E> graph) {
+        int numVertices = graph.getNumVertices();
+        Map<String, Integer> indexById = new HashMap<>();
+        for (V vertex : graph.getVertices()) {
+            indexById.put(vertex.getId(), indexById.size());
+        }
+
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[graph.getNumEdges()];
+        int v = 0;
+        for (V vertex : graph.getVertices()) {
+            int[] numTargets = {offsets[v]};
+            graph.forEachOutgoing(vertex, (neighbour, edge) ->
+                    targets[numTargets[0]++] = indexById.get(neighbour.getId()));
+            offsets[++v] = numTargets[0];
+        }
+        return new ComponentIndex<>(graph, graph.getModCount(), indexById, offsets, targets);
+    }
+
+    private int[] findStrongComponents(int[] offsets, int[] targets) {
+        int numVertices = offsets.length - 1;
+        int[] order = new int[numVertices];         // discovery order of every vertex, -1 if not yet discovered
+        int[] lowLink = new int[numVertices];       // lowest discovery order that can be reached from the subtree
+        boolean[] onStack = new boolean[numVertices];
+        int[] stack = new int[numVertices];         // vertices that have not yet been assigned to a component
+        int[] callStack = new int[numVertices];     // replaces the recursion of the depth-first search
+        int[] edgeCursor = new int[numVertices];    // next edge to explore per level of the call stack
+        int[] sizes = new int[numVertices];
+        int numDiscovered = 0, stackSize = 0, numComponents = 0;
+        Arrays.fill(order, -1);
+
+        for (int root = 0; root < numVertices; root++) {
+            if (order[root] >= 0) continue;
+
+            int top = 0;
+            callStack[0] = root;
+            edgeCursor[0] = offsets[root];
+            order[root] = lowLink[root] = numDiscovered++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (top >= 0) {
+                int v = callStack[top];
+                if (edgeCursor[top] < offsets[v + 1]) {
+                    int w = targets[edgeCursor[top]++];
+                    if (order[w] < 0) {
+                        // descend into w
+                        order[w] = lowLink[w] = numDiscovered++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[++top] = w;
+                        edgeCursor[top] = offsets[w];
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], order[w]);
+                    }
+                    continue;
+                }
+
+                // all edges of v have been explored: v may be the root of a component
+                if (lowLink[v] == order[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        this.strongComponent[w] = numComponents;
+                        sizes[numComponents]++;
+                    } while (w != v);
+                    numComponents++;
+                }
+
+                // return to the parent of v
+                top--;
+                if (top >= 0) {
+                    int parent = callStack[top];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+            }
+        }
+        return Arrays.copyOf(sizes, numComponents);
+    }
+
+    private int[] findWeakComponents(int[] offsets, int[] targets) {
+        int numVertices = offsets.length - 1;
+        UnionFind components = new UnionFind(numVertices);
+        for (int v = 0; v < numVertices; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                components.union(v, targets[e]);
+            }
+        }
+
+        // number the components densely in order of their first vertex
+        int[] idByRoot = new int[numVertices];
+        Arrays.fill(idByRoot, -1);
+        int[] sizes = new int[components.getNumSets()];
+        int numComponents = 0;
+        for (int v = 0; v < numVertices; v++) {
+            int root = components.find(v);
+            if (idByRoot[root] < 0) idByRoot[root] = numComponents++;
+            this.weakComponent[v] = idByRoot[root];
+            sizes[idByRoot[root]]++;
+        }
+        return sizes;
+    }
+
+    /**
+     * @return  whether vertices or edges have been added to or removed from the graph after it was indexed
+     */
+    public boolean isOutdated() {
+        return this.graph.getModCount() != this.modCount;
+    }
+
+    public int getNumStrongComponents() {
+        return this.strongSizes.length;
+    }
+
+    public int getNumWeakComponents() {
+        return this.weakSizes.length;
+    }
+
+    /**
+     * @param vertex
+     * @return  the id of the strongly connected component of the vertex, -1 if the vertex is not in the graph
+     */
+    public int getStrongComponent(V vertex) {
+        Integer v = this.indexById.get(vertex.getId());
+        return v != null ? this.strongComponent[v] : -1;
+    }
+
+    /**
+     * @param vertex
+     * @return  the id of the weakly connected component of the vertex, -1 if the vertex is not in the graph
+     */
+    public int getWeakComponent(V vertex) {
+        Integer v = this.indexById.get(vertex.getId());
+        return v != null ? this.weakComponent[v] : -1;
+    }
+
+    /**
+     * @return  sizes[c] = the number of vertices in strongly connected component c
+     */
+    public int[] getStrongComponentSizes() {
+        return this.strongSizes.clone();
+    }
+
+    /**
+     * @return  sizes[c] = the number of vertices in weakly connected component c
+     */
+    public int[] getWeakComponentSizes() {
+        return this.weakSizes.clone();
+    }
+
+    /**
+     * @param v1
+     * @param v2
+     * @return  whether both vertices can reach each other
+     */
+    public boolean isStronglyConnected(V v1, V v2) {
+        int c = this.getStrongComponent(v1);
+        return c >= 0 && c == this.getStrongComponent(v2);
+    }
+
+    /**
+     * @param v1    index of a vertex, as numbered by the index
+     * @param v2    index of another vertex
+     * @return  whether both vertices are connected when ignoring the direction of the edges
+     */
+    boolean isWeaklyConnected(int v1, int v2) {
+        return this.weakComponent[v1] == this.weakComponent[v2];
+    }
+
+    /**
+     * @param v1
+     * @param v2
+     * @return  whether both vertices are connected when ignoring the direction of the edges
+     *          if not, no path exists between them in either direction
+     */
+    public boolean isWeaklyConnected(V v1, V v2) {
+        int c = this.getWeakComponent(v1);
+        return c >= 0 && c == this.getWeakComponent(v2);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComponentIndex with %d strongly and %d weakly connected components",
+                this.getNumStrongComponents(), this.getNumWeakComponents());
+    }
+}
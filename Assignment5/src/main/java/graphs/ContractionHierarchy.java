@@ -0,0 +1,426 @@
+package graphs;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Contraction Hierarchies speed-up technique for repeated shortest path queries on a static graph.
+ * Preprocessing contracts all vertices one by one in order of importance, adding shortcut edges between the
+ * neighbours of a contracted vertex wherever the vertex was on the only shortest path between them.
+ * A query then runs two Dijkstra searches that only follow edges towards more important vertices,
+ * which settles just a small fraction of the graph. Shortcuts are expanded into the original vertices of the path.
+ * The hierarchy is built for one weight profile and does not follow later changes to the graph.
+ */
+public class ContractionHierarchy<V extends Identifiable, E> {
+    // limits the number of vertices settled by a witness search during preprocessing
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final DirectedGraph<V, E> graph;
+    private final CSRGraph<V, E> vertexIndex;           // provides the dense vertex indices
+    private final int[] rank;                           // rank[v] = order in which v has been contracted
+    private final Map<Long, Integer> shortcutVia = new HashMap<>();  // the contracted vertex of each shortcut u->w
+    private int numShortcuts = 0;
+
+    // the search graph of the query in compressed sparse row format
+    private int[] upOffsets, upTargets;                 // arcs v->w with rank[w] > rank[v], stored at v
+    private double[] upWeights;
+    private int[] downOffsets, downSources;             // arcs u->v with rank[u] > rank[v], stored at v
+    private double[] downWeights;
+
+    // reusable query state, reset after each query by means of the touched list
+    private final double[] distForward, distBackward;
+    private final int[] parentForward, parentBackward;
+    private final IndexMinPQ frontierForward, frontierBackward;
+    private final List<Integer> touched = new ArrayList<>();
+
+    // helper class to register an arc in the graph during contraction
+    private static class Arc {
+        private double weight;
+        private Arc(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * preprocesses the graph into a contraction hierarchy for the given weight profile
+     * @param graph
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     */
+    public ContractionHierarchy(DirectedGraph<V, E> graph, Function<E, Double> weightMapper) {
+        this.graph = graph;
+        this.vertexIndex = graph.freeze();
+        int n = this.vertexIndex.getNumVertices();
+        this.rank = new int[n];
+
+        this.contract(weightMapper);
+
+        this.distForward = new double[n];
+        this.distBackward = new double[n];
+        Arrays.fill(this.distForward, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.distBackward, Double.POSITIVE_INFINITY);
+        this.parentForward = new int[n];
+        this.parentBackward = new int[n];
+        this.frontierForward = new IndexMinPQ(n);
+        this.frontierBackward = new IndexMinPQ(n);
+    }
+
+    /**
+     * @return  the number of arcs that have been added as shortcut,
+     *          excluding existing arcs of which the weight has been lowered by a shortcut
+     */
+    public int getNumShortcuts() {
+        return this.numShortcuts;
+    }
+
+    /**
+     * contracts all vertices in order of their priority and builds the upward and downward search graphs
+     * @param weightMapper
+     */
+    private void contract(Function<E, Double> weightMapper) {
+        int n = this.vertexIndex.getNumVertices();
+
+        // the remaining graph, with the cheapest arc between any two vertices in both directions
+        List<Map<Integer, Arc>> out = new ArrayList<>(n);
+        List<Map<Integer, Arc>> in = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            out.add(new HashMap<>());
+            in.add(new HashMap<>());
+        }
+        for (int v = 0; v < n; v++) {
+            for (int e = this.vertexIndex.firstEdge(v); e < this.vertexIndex.endEdge(v); e++) {
+                int w = this.vertexIndex.getTarget(e);
+                if (w == v) continue;
+                double weight = weightMapper.apply(this.vertexIndex.getEdge(e));
+                Arc arc = out.get(v).get(w);
+                if (arc == null) {
+                    arc = new Arc(weight);
+                    out.get(v).put(w, arc);
+                    in.get(w).put(v, arc);
+                } else if (weight < arc.weight) {
+                    arc.weight = weight;
+                }
+            }
+        }
+
+        boolean[] contracted = new boolean[n];
+        int[] contractedNeighbours = new int[n];
+        WitnessSearch witness = new WitnessSearch(n, out, contracted);
+
+        // order the vertices by their initial priority
+        IndexMinPQ order = new IndexMinPQ(n);
+        for (int v = 0; v < n; v++) {
+            order.insert(v, this.priority(v, out, in, witness, contractedNeighbours, false));
+        }
+
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+            int v = order.delMin();
+
+            // lazy update: recompute the priority and postpone the vertex if it has become less attractive
+            double priority = this.priority(v, out, in, witness, contractedNeighbours, false);
+            if (!order.isEmpty() && priority > order.minPriority()) {
+                order.insert(v, priority);
+                continue;
+            }
+
+            this.priority(v, out, in, witness, contractedNeighbours, true);
+            contracted[v] = true;
+            this.rank[v] = nextRank++;
+
+            // the priorities of the neighbours change by the contraction of v
+            for (int u : in.get(v).keySet()) {
+                if (!contracted[u]) contractedNeighbours[u]++;
+            }
+            for (int w : out.get(v).keySet()) {
+                if (!contracted[w]) contractedNeighbours[w]++;
+            }
+            for (int u : in.get(v).keySet()) {
+                if (!contracted[u] && order.contains(u)) {
+                    order.changeKey(u, this.priority(u, out, in, witness, contractedNeighbours, false));
+                }
+            }
+            for (int w : out.get(v).keySet()) {
+                if (!contracted[w] && order.contains(w)) {
+                    order.changeKey(w, this.priority(w, out, in, witness, contractedNeighbours, false));
+                }
+            }
+        }
+
+        this.buildSearchGraph(out);
+    }
+
+    /**
+     * simulates or performs the contraction of v
+     * @param v
+     * @param out
+     * @param in
+     * @param witness
+     * @param contractedNeighbours
+     * @param addShortcuts  whether the required shortcuts shall actually be added to the graph
+     * @return  the priority of v: the edge difference of its contraction plus its number of contracted neighbours
+     */
+    private double priority(int v, List<Map<Integer, Arc>> out, List<Map<Integer, Arc>> in,
+                            WitnessSearch witness, int[] contractedNeighbours, boolean addShortcuts) {
+        int removedArcs = 0;
+        int shortcuts = 0;
+
+        // find the highest shortcut weight, which limits the witness searches
+        double maxOutWeight = 0.0;
+        for (Map.Entry<Integer, Arc> arc : out.get(v).entrySet()) {
+            if (witness.contracted[arc.getKey()]) continue;
+            removedArcs++;
+            maxOutWeight = Math.max(maxOutWeight, arc.getValue().weight);
+        }
+
+        for (Map.Entry<Integer, Arc> inArc : in.get(v).entrySet()) {
+            int u = inArc.getKey();
+            if (witness.contracted[u]) continue;
+            removedArcs++;
+
+            witness.search(u, v, inArc.getValue().weight + maxOutWeight);
+            for (Map.Entry<Integer, Arc> outArc : out.get(v).entrySet()) {
+                int w = outArc.getKey();
+                if (w == u || witness.contracted[w]) continue;
+                double viaWeight = inArc.getValue().weight + outArc.getValue().weight;
+                if (witness.distanceTo(w) <= viaWeight) continue;
+
+                // v is on the only shortest path from u to w
+                shortcuts++;
+                if (addShortcuts) this.addShortcut(u, w, v, viaWeight, out, in);
+            }
+        }
+
+        return shortcuts - removedArcs + contractedNeighbours[v];
+    }
+
+    private void addShortcut(int u, int w, int via, double weight,
+                             List<Map<Integer, Arc>> out, List<Map<Integer, Arc>> in) {
+        Arc arc = out.get(u).get(w);
+        if (arc == null) {
+            arc = new Arc(weight);
+            out.get(u).put(w, arc);
+            in.get(w).put(u, arc);
+            this.numShortcuts++;
+        } else if (weight < arc.weight) {
+            // the existing arc is replaced by the lighter shortcut, which adds no arc
+            arc.weight = weight;
+        } else {
+            return;
+        }
+        this.shortcutVia.put(this.arcKey(u, w), via);
+    }
+
+    private long arcKey(int from, int to) {
+        return (long) from * this.rank.length + to;
+    }
+
+    /**
+     * splits all arcs, including shortcuts, into the upward graph of the forward search
+     * and the downward graph (reversed) of the backward search
+     * @param out
+     */
+    private void buildSearchGraph(List<Map<Integer, Arc>> out) {
+        int n = this.rank.length;
+        this.upOffsets = new int[n + 1];
+        this.downOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            for (int w : out.get(v).keySet()) {
+                if (this.rank[w] > this.rank[v]) this.upOffsets[v + 1]++;
+                else this.downOffsets[w + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            this.upOffsets[v + 1] += this.upOffsets[v];
+            this.downOffsets[v + 1] += this.downOffsets[v];
+        }
+        this.upTargets = new int[this.upOffsets[n]];
+        this.upWeights = new double[this.upOffsets[n]];
+        this.downSources = new int[this.downOffsets[n]];
+        this.downWeights = new double[this.downOffsets[n]];
+
+        int[] upNext = Arrays.copyOf(this.upOffsets, n);
+        int[] downNext = Arrays.copyOf(this.downOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (Map.Entry<Integer, Arc> arc : out.get(v).entrySet()) {
+                int w = arc.getKey();
+                if (this.rank[w] > this.rank[v]) {
+                    this.upTargets[upNext[v]] = w;
+                    this.upWeights[upNext[v]++] = arc.getValue().weight;
+                } else {
+                    this.downSources[downNext[w]] = v;
+                    this.downWeights[downNext[w]++] = arc.getValue().weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target in the weight profile of the hierarchy
+     * queries are serialized, because they share the search state of the hierarchy
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @return  the shortest path from start to target, with all shortcuts expanded into the original vertices
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public synchronized DirectedGraph<V, E>.DGPath shortestPath(String startId, String targetId) {
+        int start = this.vertexIndex.indexOf(startId);
+        int target = this.vertexIndex.indexOf(targetId);
+        if (start < 0 || target < 0) return null;
+
+        DirectedGraph<V, E>.DGPath path = this.graph.new DGPath();
+
+        this.label(this.distForward, this.parentForward, this.frontierForward, start, 0.0, -1);
+        this.label(this.distBackward, this.parentBackward, this.frontierBackward, target, 0.0, -1);
+        double shortestWeight = Double.POSITIVE_INFINITY;
+        int meetingVertex = -1;
+
+        // both searches only go upwards in the hierarchy and meet at the highest vertex of the path
+        while (!this.frontierForward.isEmpty() || !this.frontierBackward.isEmpty()) {
+            boolean forwardDone = this.frontierForward.isEmpty() ||
+                    this.frontierForward.minPriority() >= shortestWeight;
+            boolean backwardDone = this.frontierBackward.isEmpty() ||
+                    this.frontierBackward.minPriority() >= shortestWeight;
+            if (forwardDone && backwardDone) break;
+
+            boolean isForward = backwardDone || (!forwardDone &&
+                    this.frontierForward.minPriority() <= this.frontierBackward.minPriority());
+            IndexMinPQ frontier = isForward ? this.frontierForward : this.frontierBackward;
+            double[] dist = isForward ? this.distForward : this.distBackward;
+            int[] parent = isForward ? this.parentForward : this.parentBackward;
+            double[] otherDist = isForward ? this.distBackward : this.distForward;
+            int[] offsets = isForward ? this.upOffsets : this.downOffsets;
+            int[] neighbours = isForward ? this.upTargets : this.downSources;
+            double[] weights = isForward ? this.upWeights : this.downWeights;
+
+            int v = frontier.delMin();
+            if (dist[v] + otherDist[v] < shortestWeight) {
+                shortestWeight = dist[v] + otherDist[v];
+                meetingVertex = v;
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = neighbours[e];
+                double distance = dist[v] + weights[e];
+                if (distance < dist[w]) {
+                    this.label(dist, parent, frontier, w, distance, v);
+                }
+            }
+        }
+
+        if (meetingVertex >= 0) {
+            path.setTotalWeight(shortestWeight);
+
+            // expand the upward path from start to the meeting vertex and the downward path towards the target
+            Deque<Integer> vertices = new LinkedList<>();
+            vertices.add(meetingVertex);
+            for (int v = meetingVertex; this.parentForward[v] >= 0; v = this.parentForward[v]) {
+                this.unpack(this.parentForward[v], v, vertices, true);
+            }
+            for (int v = meetingVertex; this.parentBackward[v] >= 0; v = this.parentBackward[v]) {
+                this.unpack(v, this.parentBackward[v], vertices, false);
+            }
+            for (int v : vertices) {
+                path.getVertices().add(this.vertexIndex.getVertex(v));
+            }
+        }
+
+        // register the visited vertices and reset the search state for the next query
+        for (int v : this.touched) {
+            path.getVisited().add(this.vertexIndex.getVertex(v));
+            this.distForward[v] = Double.POSITIVE_INFINITY;
+            this.distBackward[v] = Double.POSITIVE_INFINITY;
+        }
+        this.touched.clear();
+        this.frontierForward.clear();
+        this.frontierBackward.clear();
+
+        return meetingVertex >= 0 ? path : null;
+    }
+
+    private void label(double[] dist, int[] parent, IndexMinPQ frontier, int v, double distance, int from) {
+        if (this.distForward[v] == Double.POSITIVE_INFINITY && this.distBackward[v] == Double.POSITIVE_INFINITY) {
+            this.touched.add(v);
+        }
+        dist[v] = distance;
+        parent[v] = from;
+        frontier.insertOrDecrease(v, distance);
+    }
+
+    /**
+     * recursively expands the arc from u to w into the original vertices of its path
+     * and adds them at the front or at the back of the vertices, excluding the vertex that is there already
+     * @param u
+     * @param w
+     * @param vertices
+     * @param atFront   whether u (true) or w (false) shall be added to the vertices
+     */
+    private void unpack(int u, int w, Deque<Integer> vertices, boolean atFront) {
+        Integer via = this.shortcutVia.get(this.arcKey(u, w));
+        if (via == null) {
+            if (atFront) vertices.addFirst(u);
+            else vertices.addLast(w);
+        } else if (atFront) {
+            this.unpack(via, w, vertices, true);
+            this.unpack(u, via, vertices, true);
+        } else {
+            this.unpack(u, via, vertices, false);
+            this.unpack(via, w, vertices, false);
+        }
+    }
+
+    /**
+     * bounded dijkstra search in the remaining graph, which excludes contracted vertices and the vertex
+     * under contraction, to find out whether a shortcut is required between two neighbours
+     */
+    private static class WitnessSearch {
+        private final List<Map<Integer, Arc>> out;
+        private final boolean[] contracted;
+        private final double[] dist;
+        private final IndexMinPQ frontier;
+        private final List<Integer> touched = new ArrayList<>();
+
+        private WitnessSearch(int n, List<Map<Integer, Arc>> out, boolean[] contracted) {
+            this.out = out;
+            this.contracted = contracted;
+            this.dist = new double[n];
+            Arrays.fill(this.dist, Double.POSITIVE_INFINITY);
+            this.frontier = new IndexMinPQ(n);
+        }
+
+        /**
+         * calculates the distances from source, up to the maximum weight and the settle limit
+         * @param source
+         * @param excluded  the vertex under contraction
+         * @param maxWeight
+         */
+        private void search(int source, int excluded, double maxWeight) {
+            for (int v : this.touched) this.dist[v] = Double.POSITIVE_INFINITY;
+            this.touched.clear();
+            this.frontier.clear();
+
+            this.dist[source] = 0.0;
+            this.touched.add(source);
+            this.frontier.insert(source, 0.0);
+            int settled = 0;
+            while (!this.frontier.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                int v = this.frontier.delMin();
+                if (this.dist[v] > maxWeight) break;
+                settled++;
+                for (Map.Entry<Integer, Arc> arc : this.out.get(v).entrySet()) {
+                    int w = arc.getKey();
+                    if (w == excluded || this.contracted[w]) continue;
+                    double distance = this.dist[v] + arc.getValue().weight;
+                    if (distance < this.dist[w]) {
+                        if (this.dist[w] == Double.POSITIVE_INFINITY) this.touched.add(w);
+                        this.dist[w] = distance;
+                        this.frontier.insertOrDecrease(w, distance);
+                    }
+                }
+            }
+        }
+
+        private double distanceTo(int v) {
+            return this.dist[v];
+        }
+    }
+}
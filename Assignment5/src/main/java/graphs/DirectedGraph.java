@@ -1,13 +1,21 @@
 package graphs;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class DirectedGraph<V extends Identifiable, E> {
 
     private final Map<String,V> vertices = new HashMap<>();
     private final Map<V,Map<V,E>> edges = new HashMap<>();
+    private final Map<V,Map<V,E>> incomingEdges = new HashMap<>();
+    private volatile int modCount = 0;                      // number of structural changes to the graph
+    private volatile ComponentIndex<V,E> componentIndex;    // built lazily, outdated by structural changes
+    private volatile boolean collectingStatistics = false;  // whether searches attach statistics to their path
 
     /** representation invariants:
         1.  the vertices map stores all vertices by their identifying id (which prevents duplicates)
@@ -16,10 +24,57 @@ public class DirectedGraph<V extends Identifiable, E> {
             one from v1 to v2 in edges.get(v1).get(v2)
             one from v2 to v1 in edges.get(v2).get(v1)
         4.  every vertex instance in the key-sets of edges shall also occur in the vertices map and visa versa
+        5.  the incomingEdges map indexes the same edges in reverse direction:
+            edges.get(v1).get(v2) == incomingEdges.get(v2).get(v1) for every edge from v1 to v2
      **/
 
     public DirectedGraph() { }
 
+    /**
+     * enables or disables the collection of statistics by all searches for a path in this graph
+     * the statistics of every search are attached to its path, and recorded by the global aggregator
+     * @param collectingStatistics
+     */
+    public void setCollectingStatistics(boolean collectingStatistics) {
+        this.collectingStatistics = collectingStatistics;
+    }
+
+    public boolean isCollectingStatistics() {
+        return this.collectingStatistics;
+    }
+
+    /**
+     * starts the statistics of a search, if statistics are being collected
+     * @param algorithm
+     * @return  the new statistics, or null if no statistics are being collected
+     */
+    SearchStatistics startStatistics(String algorithm) {
+        return this.collectingStatistics ? new SearchStatistics(algorithm) : null;
+    }
+
+    /**
+     * completes the statistics of a search, if any, and attaches them to its path
+     * @param path          the result of the search, may be null
+     * @param statistics    may be null
+     * @return  the path
+     */
+    DGPath endStatistics(DGPath path, SearchStatistics statistics) {
+        if (statistics != null && path != null) path.statistics = statistics;
+        this.recordStatistics(statistics);
+        return path;
+    }
+
+    /**
+     * completes the statistics of a search that does not result in a path, if any, and records them
+     * @param statistics    may be null
+     */
+    private void recordStatistics(SearchStatistics statistics) {
+        if (statistics != null) {
+            statistics.end();
+            SearchStatisticsAggregator.getGlobal().record(statistics);
+        }
+    }
+
     public Collection<V> getVertices() {
         return vertices.values();
     }
@@ -89,6 +144,27 @@ public class DirectedGraph<V extends Identifiable, E> {
         return this.edges.get(this.getVertexById(fromId)).values();
     }
 
+    /**
+     * performs the action for every out-going edge of fromVertex, together with the neighbour vertex it leads to
+     * no collections are copied or allocated to visit the edges, and each edge costs no additional lookup
+     * @param fromVertex
+     * @param action    accepts the neighbour vertex and the edge from fromVertex towards it
+     */
+    public void forEachOutgoing(V fromVertex, BiConsumer<? super V, ? super E> action) {
+        Map<V, E> neighbours = this.edges.get(fromVertex);
+        if (neighbours != null) neighbours.forEach(action);
+    }
+
+    /**
+     * performs the action for every in-coming edge of toVertex, together with the neighbour vertex it comes from
+     * @param toVertex
+     * @param action    accepts the neighbour vertex and the edge from there towards toVertex
+     */
+    public void forEachIncoming(V toVertex, BiConsumer<? super V, ? super E> action) {
+        Map<V, E> neighbours = this.incomingEdges.get(toVertex);
+        if (neighbours != null) neighbours.forEach(action);
+    }
+
     /**
      * Adds newVertex to the graph, if not yet present and in a way that maintains the representation invariants.
      * If a duplicate of newVertex (with the same id) already exists in the graph,
@@ -103,6 +179,8 @@ public class DirectedGraph<V extends Identifiable, E> {
 
         if (this.vertices.putIfAbsent(newVertex.getId(), newVertex) == null) {
             this.edges.put(newVertex, new HashMap<>());
+            this.incomingEdges.put(newVertex, new HashMap<>());
+            this.modCount++;
             return newVertex;
         } else {
             return getVertexById(newVertex.getId());
@@ -125,29 +203,22 @@ public class DirectedGraph<V extends Identifiable, E> {
      * @return  whether the edge has been added successfully
      */
     public boolean addEdge(V fromVertex, V toVertex, E newEdge) {
-        // TODO add (directed) newEdge to the graph between fromVertex and toVertex
-
         if (fromVertex == null || toVertex == null) {
             return false;
         }
 
-        Map<V, E> fromVertexNeighbours = this.edges.get(fromVertex);
-
-        if (fromVertexNeighbours == null) {
-            this.addOrGetVertex(fromVertex);
-            this.addOrGetVertex(toVertex);
-
-            this.edges.putIfAbsent(fromVertex, new HashMap<V, E>());
-            this.edges.get(fromVertex).put(toVertex, newEdge);
-
-            return true;
-        }
+        // register both vertices if not yet present, and continue with the instances held by the graph
+        fromVertex = this.addOrGetVertex(fromVertex);
+        toVertex = this.addOrGetVertex(toVertex);
 
-        if (this.edges.get(fromVertex).containsKey(toVertex)) {
+        Map<V, E> fromVertexNeighbours = this.edges.get(fromVertex);
+        if (fromVertexNeighbours.containsKey(toVertex)) {
             return false;
         }
 
         fromVertexNeighbours.put(toVertex, newEdge);
+        this.incomingEdges.get(toVertex).put(fromVertex, newEdge);
+        this.modCount++;
         return true;
     }
 
@@ -161,30 +232,14 @@ public class DirectedGraph<V extends Identifiable, E> {
      * @return  whether the edge has been added successfully
      */
     public boolean addEdge(String fromId, String toId, E newEdge) {
-        // TODO add (directed) newEdge to the graph between fromId and toId
-
-        if (this.vertices.get(fromId) == null || this.vertices.get(toId) == null) {
-            return false;
-        }
-
-        Map<V, E> fromVertexNeighbours = this.edges.get(this.vertices.get(fromId));
-
-        if (fromVertexNeighbours == null) {
-            this.addOrGetVertex(this.vertices.get(fromId));
-            this.addOrGetVertex(this.vertices.get(toId));
-
-            this.edges.putIfAbsent(this.vertices.get(fromId), new HashMap<V, E>());
-            this.edges.get(this.vertices.get(fromId)).put(this.vertices.get(toId), newEdge);
-
-            return true;
-        }
+        V fromVertex = this.getVertexById(fromId);
+        V toVertex = this.getVertexById(toId);
 
-        if (this.edges.get(this.vertices.get(fromId)).containsKey(this.vertices.get(toId))) {
+        if (fromVertex == null || toVertex == null) {
             return false;
         }
 
-        fromVertexNeighbours.put(this.vertices.get(toId), newEdge);
-        return true;
+        return this.addEdge(fromVertex, toVertex, newEdge);
     }
 
     /**
@@ -233,6 +288,44 @@ public class DirectedGraph<V extends Identifiable, E> {
         return this.getEdge(this.vertices.get(fromId), this.vertices.get(toId));
     }
 
+    /**
+     * provides direct read access to the out-going edges of fromVertex, keyed by their target vertex
+     * for use by other graph representations and algorithms in the graphs package
+     * @param fromVertex
+     * @return  null if fromVertex cannot be found in the graph
+     */
+    Map<V, E> getOutgoingEdges(V fromVertex) {
+        return this.edges.get(fromVertex);
+    }
+
+    /**
+     * provides direct read access to the in-coming edges of toVertex, keyed by their start vertex
+     * for use by other graph representations and algorithms in the graphs package
+     * @param toVertex
+     * @return  null if toVertex cannot be found in the graph
+     */
+    Map<V, E> getIncomingEdges(V toVertex) {
+        return this.incomingEdges.get(toVertex);
+    }
+
+    /**
+     * provides the number of structural changes to the graph, i.e. added vertices and edges and removed vertices,
+     * for use by derived representations in the graphs package to detect that they have become outdated
+     * @return
+     */
+    int getModCount() {
+        return this.modCount;
+    }
+
+    /**
+     * builds a frozen, read-optimized copy of the current graph in compressed sparse row format
+     * later changes to this graph are not reflected in the copy
+     * @return
+     */
+    public CSRGraph<V, E> freeze() {
+        return new CSRGraph<>(this);
+    }
+
     /**
      * @return  the total number of vertices in the graph
      */
@@ -251,13 +344,40 @@ public class DirectedGraph<V extends Identifiable, E> {
     }
 
     /**
-     * Remove vertices without any connection from the graph
+     * Remove vertices without any out-going or in-coming connection from the graph
      */
     public void removeUnconnectedVertices() {
-        this.edges.entrySet().removeIf(e -> e.getValue().size() == 0);
+        if (this.edges.entrySet().removeIf(e -> e.getValue().size() == 0 &&
+                this.incomingEdges.get(e.getKey()).size() == 0)) {
+            this.modCount++;
+        }
+        this.incomingEdges.keySet().removeIf(v -> !this.edges.containsKey(v));
         this.vertices.entrySet().removeIf(e -> !this.edges.containsKey(e.getValue()));
     }
 
+    /**
+     * provides the strongly and weakly connected components of the graph
+     * the index is rebuilt in O(V+E) on first use after any vertex or edge has been added or removed,
+     * so the first search after a structural change pays for that rebuild
+     * @return
+     */
+    public ComponentIndex<V, E> getComponentIndex() {
+        ComponentIndex<V, E> index = this.componentIndex;
+        if (index == null || index.isOutdated()) {
+            index = ComponentIndex.of(this);
+            this.componentIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * checks whether target is in another weakly connected component than start,
+     * in which case no search can find a path from start to target
+     */
+    private boolean isUnreachable(V start, V target) {
+        return !this.getComponentIndex().isWeaklyConnected(start, target);
+    }
+
     /**
      * represents a path of connected vertices and edges in the graph
      */
@@ -265,6 +385,7 @@ public class DirectedGraph<V extends Identifiable, E> {
         private Deque<V> vertices = new LinkedList<>();
         private double totalWeight = 0.0;
         private Set<V> visited = new HashSet<>();
+        private SearchStatistics statistics = null;
 
         /**
          * representation invariants:
@@ -274,6 +395,7 @@ public class DirectedGraph<V extends Identifiable, E> {
          * 3. a path without vertices is empty
          * totalWeight is a helper attribute to capture additional info from searches, not a fundamental property of a path
          * visited is a helper set to be able to track visited vertices in searches, not a fundamental property of a path
+         * statistics optionally describes the work of the search that found the path
          **/
 
         @Override
@@ -287,6 +409,7 @@ public class DirectedGraph<V extends Identifiable, E> {
                 separator = ", ";
             }
             sb.append(")");
+            if (this.statistics != null) sb.append(" ").append(this.statistics);
             return sb.toString();
         }
 
@@ -299,6 +422,23 @@ public class DirectedGraph<V extends Identifiable, E> {
         }
 
         public Set<V> getVisited() { return this.visited; }
+
+        /**
+         * @return  the statistics of the search that found this path,
+         *          or null if the graph was not collecting statistics at the time
+         */
+        public SearchStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        // helpers for searches outside of this class (within the graphs package) to build up a path
+        void addFirst(V vertex) {
+            this.vertices.addFirst(vertex);
+        }
+
+        void setTotalWeight(double totalWeight) {
+            this.totalWeight = totalWeight;
+        }
     }
 
     /**
@@ -315,45 +455,122 @@ public class DirectedGraph<V extends Identifiable, E> {
         V start = getVertexById(startId);
         V target = getVertexById(targetId);
         if (start == null || target == null) return null;
+        SearchStatistics statistics = this.startStatistics("depthFirstSearch");
+        if (this.isUnreachable(start, target)) return this.endStatistics(null, statistics);
 
         DGPath path = new DGPath();
 
-        // TODO calculate the path from start to target by recursive depth-first-search
+        // calculate the path from start to target by iterative depth-first-search
+        return this.endStatistics(dfsIterative(start, target, path, statistics) ? path : null, statistics);
+    }
+
+    /**
+     * Iterative DFS helper, which visits the vertices in the same order as a recursive depth-first-search would do.
+     * An explicit stack holds the current path from start, together with the iterator over
+     * the neighbours that still have to be explored from each vertex on the path.
+     * This avoids a stack overflow on deep graphs and does not copy the neighbours of any vertex.
+     *
+     * @param start     the vertex to start the search
+     * @param target    the targeted vertex
+     * @param path      collects the visited vertices, and the vertices of the path if the target is found
+     * @param statistics    counts the work of the search, may be null
+     * @return whether the target has been found
+     */
+    private boolean dfsIterative(V start, V target, DGPath path, SearchStatistics statistics) {
+        Deque<V> stack = new ArrayDeque<>();
+        Deque<Iterator<V>> unexplored = new ArrayDeque<>();
+
+        path.visited.add(start);
+        stack.push(start);
+        unexplored.push(this.edges.get(start).keySet().iterator());
+        if (statistics != null) {
+            statistics.countPush(stack.size());
+            statistics.countSettled();
+        }
 
-        DGPath newPath = dfsRecursive(startId, targetId, path);
+        V current = start;
+        while (!current.equals(target)) {
+            Iterator<V> neighbours = unexplored.peek();
+            if (!neighbours.hasNext()) {
+                // all neighbours have been explored, backtrack
+                stack.pop();
+                unexplored.pop();
+                if (statistics != null) statistics.countPop();
+                if (stack.isEmpty()) return false;
+                continue;
+            }
 
-        System.out.println(newPath);
+            current = neighbours.next();
+            if (statistics != null) statistics.countRelaxation();
+            if (path.visited.add(current)) {
+                stack.push(current);
+                unexplored.push(this.edges.get(current).keySet().iterator());
+                if (statistics != null) {
+                    statistics.countPush(stack.size());
+                    statistics.countSettled();
+                }
+            } else {
+                current = stack.peek();
+            }
+        }
 
-        return newPath;
+        // the stack holds the path from the target back to start
+        for (V vertex : stack) {
+            path.vertices.addFirst(vertex);
+        }
+        return true;
     }
 
     /**
-     * Recursive DFS helper
-     *
-     * @param currentId vertices to proces
-     * @param targetId  Targeted vertices
-     * @param newPath   New path object
-     * @return A path object
+     * Checks whether the target vertex can be reached from the start vertex via a sequence of directed edges.
+     * This depth-first-search only tracks the visited vertices and does no path bookkeeping at all.
+     * @param startId
+     * @param targetId
+     * @return  whether a path exists from start to target
+     *          returns false if either start or target cannot be matched with a vertex in the graph
      */
-    public DGPath dfsRecursive(String currentId, String targetId, DGPath newPath) {
+    public boolean isReachable(String startId, String targetId) {
+        V start = getVertexById(startId);
+        V target = getVertexById(targetId);
+        if (start == null || target == null) return false;
 
-        if (newPath.visited.contains(getVertexById(currentId))) return null;
-        newPath.visited.add(getVertexById(currentId));
+        SearchStatistics statistics = this.startStatistics("isReachable");
+        boolean reachable = this.isReachable(start, target, statistics);
+        this.recordStatistics(statistics);
+        return reachable;
+    }
 
-        if (currentId.equals(targetId)) { // bail out if target matches the current
-            newPath.vertices.addLast(getVertexById(currentId));
-            return newPath;
-        }
+    private boolean isReachable(V start, V target, SearchStatistics statistics) {
+        // the component index answers most queries without any search
+        ComponentIndex<V, E> components = this.getComponentIndex();
+        if (components.isStronglyConnected(start, target)) return true;
+        if (!components.isWeaklyConnected(start, target)) return false;
+
+        Set<V> visited = new HashSet<>();
+        Deque<V> stack = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        if (statistics != null) statistics.countPush(stack.size());
+
+        BiConsumer<V, E> explore = (neighbour, edge) -> {
+            if (statistics != null) statistics.countRelaxation();
+            if (visited.add(neighbour)) {
+                stack.push(neighbour);
+                if (statistics != null) statistics.countPush(stack.size());
+            }
+        };
 
-        for (V neighbour : getNeighbours(currentId)) {
-            DGPath path = dfsRecursive(neighbour.getId(), targetId, newPath);
-            if (path != null) {
-                path.vertices.addFirst(getVertexById(currentId));
-                return path;
+        while (!stack.isEmpty()) {
+            V current = stack.pop();
+            if (statistics != null) {
+                statistics.countPop();
+                statistics.countSettled();
             }
+            if (current.equals(target)) return true;
+            this.forEachOutgoing(current, explore);
         }
 
-        return null;
+        return false;
     }
 
 
@@ -372,6 +589,8 @@ public class DirectedGraph<V extends Identifiable, E> {
         V start = getVertexById(startId);
         V target = getVertexById(targetId);
         if (start == null || target == null) return null;
+        SearchStatistics statistics = this.startStatistics("breadthFirstSearch");
+        if (this.isUnreachable(start, target)) return this.endStatistics(null, statistics);
 
         // initialise the result path of the search
         DGPath path = new DGPath();
@@ -380,55 +599,87 @@ public class DirectedGraph<V extends Identifiable, E> {
         // easy target
         if (start.equals(target)) {
             path.visited.add(start);
-            return path;
+            return this.endStatistics(path, statistics);
         }
 
-        Queue<V> fifoQueue = new LinkedList<>();
-        Map<V, V> visitedFrom = new HashMap<>();
-
-        fifoQueue.offer(start);
-        visitedFrom.put(start, null);
-
-        // TODO calculate the path from start to target by breadth-first-search
-
-        V current = fifoQueue.poll();
+        // calculate the path from start to target by breadth-first-search
+        BFSearch search = new BFSearch(start, target, path, statistics);
+        V current = search.poll();
 
         while (current != null) {
-            for (V neighbour : getNeighbours(current)) {
-                if (neighbour.equals(target)) {
-                    while (current != null) {
-                        path.vertices.addFirst(current);
-                        current = visitedFrom.get(current);
-                    }
-                    return path;
-                } else if (!visitedFrom.containsKey(neighbour)) {
-                    path.visited.add(neighbour);
-                    visitedFrom.put(neighbour, current);
-                    fifoQueue.offer(neighbour);
+            search.current = current;
+            this.forEachOutgoing(current, search);
+            if (statistics != null) statistics.countSettled();
+            if (search.found) {
+                while (current != start) {
+                    path.vertices.addFirst(current);
+                    current = search.visitedFrom.get(current);
                 }
+                path.vertices.addFirst(start);
+                return this.endStatistics(path, statistics);
             }
-            current = fifoQueue.poll();
+            current = search.poll();
         }
 
-        return null;
+        return this.endStatistics(null, statistics);
+    }
+
+    // helper class to register the progress of a breadth-first search
+    // it explores the out-going edges of the current vertex, one at a time
+    private class BFSearch implements BiConsumer<V, E> {
+        private final Queue<V> fifoQueue = new ArrayDeque<>();
+        private final Map<V, V> visitedFrom = new HashMap<>();  // the start vertex is visited from itself
+        private final V target;
+        private final DGPath path;
+        private final SearchStatistics statistics;    // may be null
+        private V current;
+        private boolean found = false;
+
+        private BFSearch(V start, V target, DGPath path, SearchStatistics statistics) {
+            this.target = target;
+            this.path = path;
+            this.statistics = statistics;
+            this.offer(start);
+            this.visitedFrom.put(start, start);
+        }
+
+        private void offer(V vertex) {
+            this.fifoQueue.offer(vertex);
+            if (this.statistics != null) this.statistics.countPush(this.fifoQueue.size());
+        }
+
+        private V poll() {
+            V vertex = this.fifoQueue.poll();
+            if (this.statistics != null && vertex != null) this.statistics.countPop();
+            return vertex;
+        }
+
+        @Override
+        public void accept(V neighbour, E edge) {
+            if (this.found) return;
+            if (this.statistics != null) this.statistics.countRelaxation();
+            if (neighbour.equals(this.target)) {
+                this.found = true;
+            } else if (this.visitedFrom.putIfAbsent(neighbour, this.current) == null) {
+                this.path.visited.add(neighbour);
+                this.offer(neighbour);
+            }
+        }
     }
 
     // helper class to register the state of a vertex in dijkstra shortest path algorithm
-    // your may change this class or delete it altogether follow a different approach in your implementation
-    private class DSPNode implements Comparable<DSPNode> {
+    // the nodes are ordered by the IndexMinPQ of the search, by their index
+    private class DSPNode {
         protected V vertex;                // the graph vertex that is concerned with this DSPNode
         protected V fromVertex = null;     // the parent's node vertex that has an edge towards this node's vertex
         protected boolean marked = false;  // indicates DSP processing has been marked complete for this vertex
         protected double weightSumTo = Double.MAX_VALUE;   // sum of weights of current shortest path to this node's vertex
+        protected double estimateTo = 0.0; // heuristic estimate of the remaining weight from this node's vertex to the target
+        protected final int index;         // dense index of this node in the search, used as key in the priority queue
 
-        private DSPNode(V vertex) {
+        private DSPNode(V vertex, int index) {
             this.vertex = vertex;
-        }
-
-        // comparable interface helps to find a node with the shortest current path, sofar
-        @Override
-        public int compareTo(DSPNode dspv) {
-            return Double.compare(weightSumTo, dspv.weightSumTo);
+            this.index = index;
         }
     }
 
@@ -444,10 +695,78 @@ public class DirectedGraph<V extends Identifiable, E> {
      */
     public DGPath dijkstraShortestPath(String startId, String targetId,
                                        Function<E,Double> weightMapper) {
+        return this.shortestPathSearch("dijkstra", startId, targetId, weightMapper::apply, null);
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target according to Dijkstra's algorithm
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param profile       provides the weight of every edge
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DGPath dijkstraShortestPath(String startId, String targetId, WeightProfile<E> profile) {
+        return this.shortestPathSearch("dijkstra", startId, targetId, profile, null);
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target
+     * according to the A* algorithm, which directs Dijkstra's search towards the target
+     * by means of a heuristic estimate of the remaining weight from any vertex to the target.
+     * The heuristic shall be consistent: it never overestimates the weight of a single edge
+     * plus the estimate from its end vertex, and it yields 0.0 for the target itself.
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @param heuristic     provides a lower bound estimate of the weight of the path from a vertex (first argument)
+     *                      to the target (second argument)
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DGPath aStarShortestPath(String startId, String targetId,
+                                    Function<E,Double> weightMapper, BiFunction<V,V,Double> heuristic) {
+        return this.shortestPathSearch("aStar", startId, targetId, weightMapper::apply, heuristic);
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target according to the A* algorithm
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param profile       provides the weight of every edge
+     * @param heuristic     provides a lower bound estimate of the weight of the path from a vertex (first argument)
+     *                      to the target (second argument)
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DGPath aStarShortestPath(String startId, String targetId,
+                                    WeightProfile<E> profile, BiFunction<V,V,Double> heuristic) {
+        return this.shortestPathSearch("aStar", startId, targetId, profile, heuristic);
+    }
+
+    /**
+     * shared implementation of Dijkstra's and the A* algorithm
+     * the priority queue is ordered by the weight of the path sofar plus the heuristic estimate towards the target
+     * @param algorithm     name of the algorithm in the statistics of the search
+     * @param startId
+     * @param targetId
+     * @param weightMapper
+     * @param heuristic     null for a blind dijkstra search
+     * @return  the shortest path from start to target, or null if no path can be found
+     */
+    private DGPath shortestPathSearch(String algorithm, String startId, String targetId,
+                                      ToDoubleFunction<E> weightMapper, BiFunction<V,V,Double> heuristic) {
 
         V start = getVertexById(startId);
         V target = getVertexById(targetId);
         if (start == null || target == null) return null;
+        SearchStatistics statistics = this.startStatistics(algorithm);
+        if (this.isUnreachable(start, target)) return this.endStatistics(null, statistics);
 
         // initialise the result path of the search
         DGPath path = new DGPath();
@@ -456,70 +775,809 @@ public class DirectedGraph<V extends Identifiable, E> {
         // easy target
         if (start.equals(target)) {
             path.vertices.add(start);
-            return path;
+            return this.endStatistics(path, statistics);
         }
 
-        // keep track of the DSP status of all visited nodes
-        // you may choose a different approach of tracking progress of the algorithm, if you wish
-        Map<V, DSPNode> progressData = new HashMap<>();
-
-        // initialise the progress of the start node
-        DSPNode nextDspNode = new DSPNode(start);
-        nextDspNode.weightSumTo = 0.0;
-        progressData.put(start, nextDspNode);
+        DSPSearch search = new DSPSearch(start, target, false, weightMapper, heuristic, path).withStatistics(statistics);
+        return this.endStatistics(this.completeSearch(search, target), statistics);
+    }
 
-        while (nextDspNode != null) {
-            // TODO continue Dijkstra's algorithm to process nextDspNode
-            //  mark nodes as you complete their processing
-            //  register all visited vertices while going for statistical purposes
-            //  if you hit the target: complete the path and bail out !!!
+    /**
+     * continues a forward search until the target has been settled
+     * @param search
+     * @param target
+     * @return  the shortest path from the origin of the search to target, or null if no path can be found
+     */
+    private DGPath completeSearch(DSPSearch search, V target) {
+        DGPath path = search.path;
 
-            V vertex = nextDspNode.vertex;
+        while (!search.frontier.isEmpty()) {
+            // the unmarked node with the shortest estimated path sofar is on top of the heap
+            DSPNode nextDspNode = search.settleNext();
 
-            //If target is found
-            if (vertex.equals(target)) {
-                path.totalWeight = (progressData.get(target).weightSumTo);
+            // if we hit the target: complete the path and bail out
+            if (nextDspNode.vertex.equals(target)) {
+                path.totalWeight = nextDspNode.weightSumTo;
 
                 DSPNode temp = nextDspNode; // temp var to store sequence of nodes
 
                 while (temp != null) { // build path backwards and push to path queue.
                     path.vertices.push(temp.vertex);
-                    temp = progressData.get(temp.fromVertex);
+                    temp = search.progressData.get(temp.fromVertex);
                 }
 
                 return path;
             }
 
-            //loop all neighbours
-            for (V neighbours : getNeighbours(vertex)) {
-
-                double distance = weightMapper.apply(getEdge(vertex, neighbours)) + nextDspNode.weightSumTo;
-                //check if not in progress data or
-                if (!progressData.containsKey(neighbours) || distance < progressData.get(neighbours).weightSumTo) {
-                    DSPNode dspNode = new DSPNode(neighbours);
-                    dspNode.weightSumTo = distance;
-                    dspNode.fromVertex = vertex;
-                    progressData.put(neighbours, dspNode);
-                    path.getVisited().add(neighbours);
+            // relax the edges towards all neighbours
+            search.relaxEdges();
+        }
+
+        // no path found, graph was not connected ???
+        return null;
+    }
+
+    // helper class to register the progress of a dijkstra or A* search in one direction
+    // it relaxes the edges of the node that is being settled, one at a time
+    private class DSPSearch implements BiConsumer<V, E> {
+        private final boolean backward;               // whether the search follows in-coming edges towards its origin
+        private final V target;                       // the target of the heuristic estimates
+        private final ToDoubleFunction<E> weightMapper;
+        private final BiFunction<V, V, Double> heuristic;
+        private final DGPath path;                    // registers all visited vertices
+        private final V origin;
+        private Set<V> excluded = Collections.emptySet();           // vertices that shall not be entered
+        private Set<V> excludedFromOrigin = Collections.emptySet(); // vertices that shall not be entered from origin
+        private final Map<V, DSPNode> progressData = new HashMap<>();
+        private final List<DSPNode> nodesByIndex = new ArrayList<>();
+        private final IndexMinPQ frontier = new IndexMinPQ(16);  // grows with the number of discovered nodes
+        private DSPNode current;                      // the node whose edges are being relaxed
+
+        // the opposite search of a bi-directional search, and the shortest path found via both searches
+        private DSPSearch other = null;
+        private double shortestWeight = Double.POSITIVE_INFINITY;
+        private V meetingVertex = null;
+        private SearchStatistics statistics = null;   // counts the work of the search, if any
+
+        private DSPSearch(V origin, V target, boolean backward,
+                          ToDoubleFunction<E> weightMapper, BiFunction<V, V, Double> heuristic, DGPath path) {
+            this.backward = backward;
+            this.target = target;
+            this.weightMapper = weightMapper;
+            this.heuristic = heuristic;
+            this.path = path;
+            this.origin = origin;
+            DSPNode originNode = this.discover(origin);
+            originNode.weightSumTo = 0.0;
+            this.frontier.insert(originNode.index, originNode.estimateTo);
+        }
+
+        /**
+         * attaches statistics to the search, which may be shared with the opposite search of a bi-directional search
+         * @param statistics    may be null
+         * @return  this search
+         */
+        private DSPSearch withStatistics(SearchStatistics statistics) {
+            this.statistics = statistics;
+            // count the origin, which is already on the frontier
+            if (statistics != null) statistics.countPush(this.frontierSize());
+            return this;
+        }
+
+        private int frontierSize() {
+            return this.frontier.size() + (this.other != null ? this.other.frontier.size() : 0);
+        }
+
+        private DSPNode discover(V vertex) {
+            DSPNode dspNode = new DSPNode(vertex, this.nodesByIndex.size());
+            if (this.heuristic != null) dspNode.estimateTo = this.heuristic.apply(vertex, this.target);
+            this.progressData.put(vertex, dspNode);
+            this.nodesByIndex.add(dspNode);
+            this.frontier.ensureCapacity(this.nodesByIndex.size());
+            return dspNode;
+        }
+
+        private DSPNode settleNext() {
+            this.current = this.nodesByIndex.get(this.frontier.delMin());
+            this.current.marked = true;
+            if (this.statistics != null) {
+                this.statistics.countPop();
+                this.statistics.countSettled();
+            }
+            return this.current;
+        }
+
+        private void relaxEdges() {
+            if (this.backward) forEachIncoming(this.current.vertex, this);
+            else forEachOutgoing(this.current.vertex, this);
+        }
+
+        @Override
+        public void accept(V neighbour, E edge) {
+            if (this.excluded.contains(neighbour)) return;
+            if (this.current.vertex == this.origin && this.excludedFromOrigin.contains(neighbour)) return;
+            if (this.statistics != null) this.statistics.countRelaxation();
+
+            double distance = this.current.weightSumTo + this.weightMapper.applyAsDouble(edge);
+            DSPNode dspNode = this.progressData.get(neighbour);
+
+            if (dspNode == null) {
+                dspNode = this.discover(neighbour);
+                this.path.visited.add(neighbour);
+                if (dspNode.estimateTo == Double.POSITIVE_INFINITY) {
+                    // the heuristic tells that the target cannot be reached via the neighbour
+                    dspNode.marked = true;
+                    return;
+                }
+            } else if (dspNode.marked || distance >= dspNode.weightSumTo) {
+                return;
+            }
+
+            dspNode.weightSumTo = distance;
+            dspNode.fromVertex = this.current.vertex;
+            this.frontier.insertOrDecrease(dspNode.index, distance + dspNode.estimateTo);
+            if (this.statistics != null) this.statistics.countPush(this.frontierSize());
+
+            // check whether the neighbour connects both searches of a bi-directional search with a shorter path
+            if (this.other != null) {
+                DSPNode otherNode = this.other.progressData.get(neighbour);
+                if (otherNode != null && distance + otherNode.weightSumTo < this.shortestWeight) {
+                    this.shortestWeight = distance + otherNode.weightSumTo;
+                    this.meetingVertex = neighbour;
+                    this.other.shortestWeight = this.shortestWeight;
+                    this.other.meetingVertex = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target
+     * by two simultaneous Dijkstra searches: one forward from the start along out-going edges
+     * and one backward from the target along in-coming edges.
+     * The search completes as soon as no shorter path can be found via the frontiers of both searches,
+     * which typically is when each search has covered about half of the distance between start and target.
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DGPath bidirectionalDijkstraShortestPath(String startId, String targetId,
+                                                    Function<E,Double> weightMapper) {
+        return this.bidirectionalSearch(startId, targetId, weightMapper::apply);
+    }
+
+    /**
+     * Calculates the edge-weighted shortest path from start to target by two simultaneous Dijkstra searches
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of the search
+     * @param targetId      id of the target vertex of the search
+     * @param profile       provides the weight of every edge
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DGPath bidirectionalDijkstraShortestPath(String startId, String targetId, WeightProfile<E> profile) {
+        return this.bidirectionalSearch(startId, targetId, profile);
+    }
+
+    private DGPath bidirectionalSearch(String startId, String targetId, ToDoubleFunction<E> weightMapper) {
+        V start = getVertexById(startId);
+        V target = getVertexById(targetId);
+        if (start == null || target == null) return null;
+        SearchStatistics statistics = this.startStatistics("bidirectionalDijkstra");
+        if (this.isUnreachable(start, target)) return this.endStatistics(null, statistics);
+
+        // initialise the result path of the search
+        DGPath path = new DGPath();
+        path.visited.add(start);
+
+        // easy target
+        if (start.equals(target)) {
+            path.vertices.add(start);
+            return this.endStatistics(path, statistics);
+        }
+
+        DSPSearch forward = new DSPSearch(start, target, false, weightMapper, null, path);
+        DSPSearch backward = new DSPSearch(target, start, true, weightMapper, null, path);
+        forward.other = backward;
+        backward.other = forward;
+        forward.withStatistics(statistics);
+        backward.withStatistics(statistics);
+        path.visited.add(target);
+
+        // both searches keep track of the shortest path found sofar
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty() &&
+                forward.frontier.minPriority() + backward.frontier.minPriority() < forward.shortestWeight) {
+
+            // expand the search with the nearest frontier
+            DSPSearch search = forward.frontier.minPriority() <= backward.frontier.minPriority() ? forward : backward;
+            search.settleNext();
+            search.relaxEdges();
+        }
+
+        // no path found, graph was not connected
+        V meetingVertex = forward.meetingVertex;
+        if (meetingVertex == null) return this.endStatistics(null, statistics);
+
+        // complete the path from start to the meeting vertex, and from there on to the target
+        path.totalWeight = forward.shortestWeight;
+        for (DSPNode temp = forward.progressData.get(meetingVertex); temp != null;
+             temp = forward.progressData.get(temp.fromVertex)) {
+            path.vertices.addFirst(temp.vertex);
+        }
+        for (DSPNode temp = backward.progressData.get(backward.progressData.get(meetingVertex).fromVertex); temp != null;
+             temp = backward.progressData.get(temp.fromVertex)) {
+            path.vertices.addLast(temp.vertex);
+        }
+
+        return this.endStatistics(path, statistics);
+    }
+
+
+    /**
+     * Calculates the shortest paths from the start vertex to all vertices that can be reached from there,
+     * by a single dijkstra search that is continued until all reachable vertices have been settled
+     * @param startId       id of the start vertex of the search
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  the tree of shortest paths from start, from which the path to any target can be retrieved
+     *          returns null if start cannot be matched with a vertex in the graph
+     */
+    public ShortestPathTree shortestPathTree(String startId, Function<E,Double> weightMapper) {
+        return this.shortestPathTree(startId, weightMapper::apply, false, "shortestPathTree");
+    }
+
+    /**
+     * Calculates the shortest paths from start to all vertices that can be reached from start
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of all paths
+     * @param profile       provides the weight of every edge
+     * @return  the tree of shortest paths from start, or null if start cannot be matched with a vertex in the graph
+     */
+    public ShortestPathTree shortestPathTree(String startId, WeightProfile<E> profile) {
+        return this.shortestPathTree(startId, profile, false, "shortestPathTree");
+    }
+
+    /**
+     * shared implementation of the one-to-all and all-to-one shortest path trees
+     * @param rootId
+     * @param weightMapper
+     * @param reverse       whether the tree holds the paths towards the root instead of from it
+     * @param algorithm     name of the algorithm in the statistics of the search
+     * @return  the tree, or null if the root cannot be matched with a vertex in the graph
+     */
+    private ShortestPathTree shortestPathTree(String rootId, ToDoubleFunction<E> weightMapper, boolean reverse,
+                                              String algorithm) {
+        SearchStatistics statistics = this.startStatistics(algorithm);
+        ShortestPathTree tree = this.buildShortestPathTree(rootId, weightMapper, reverse, statistics);
+        if (tree != null) tree.statistics = statistics;
+        this.recordStatistics(statistics);
+        return tree;
+    }
+
+    private ShortestPathTree buildShortestPathTree(String rootId, ToDoubleFunction<E> weightMapper, boolean reverse,
+                                                   SearchStatistics statistics) {
+        V root = getVertexById(rootId);
+        if (root == null) return null;
+
+        DGPath visits = new DGPath();
+        DSPSearch search = new DSPSearch(root, null, reverse, weightMapper, null, visits).withStatistics(statistics);
+        while (!search.frontier.isEmpty()) {
+            search.settleNext();
+            search.relaxEdges();
+        }
+
+        return new ShortestPathTree(root, reverse, weightMapper, search.progressData, search.nodesByIndex);
+    }
+
+    /**
+     * Calculates the shortest paths from all vertices that can reach the target vertex towards that target,
+     * by a single dijkstra search backwards along the in-coming edges from the target
+     * @param targetId      id of the target vertex of all paths
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  the reverse tree of shortest paths towards target, from which the path from any start can be retrieved
+     *          returns null if target cannot be matched with a vertex in the graph
+     */
+    public ShortestPathTree reverseShortestPathTree(String targetId, Function<E,Double> weightMapper) {
+        return this.shortestPathTree(targetId, weightMapper::apply, true, "reverseShortestPathTree");
+    }
+
+    /**
+     * Calculates the k shortest loop-free paths from start to target in order of increasing weight,
+     * according to Yen's algorithm. Every next path deviates from one of the earlier paths at a spur vertex:
+     * it shares the root of that path up to the spur vertex, and continues by the shortest spur path
+     * that avoids the root and all continuations that have been taken from the same root before.
+     * All spur searches share a single reverse shortest path tree towards the target, which provides
+     * the exact remaining weight in the unrestricted graph as A* estimate, such that the spur searches
+     * hardly explore beyond their result. The spur searches of a path run in parallel,
+     * so the weightMapper shall be safe for use by multiple threads.
+     * @param startId       id of the start vertex of the paths
+     * @param targetId      id of the target vertex of the paths
+     * @param k             the maximum number of paths
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  at most k paths from start to target, in order of increasing weight
+     *          an empty list if no path can be found from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     */
+    public List<DGPath> kShortestPaths(String startId, String targetId, int k, Function<E,Double> weightMapper) {
+        return this.yenShortestPaths(startId, targetId, k, weightMapper::apply);
+    }
+
+    /**
+     * Calculates the k shortest loop-free paths from start to target by Yen's algorithm
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of the paths
+     * @param targetId      id of the target vertex of the paths
+     * @param k             the maximum number of paths
+     * @param profile       provides the weight of every edge
+     * @return  at most k paths from start to target, in order of increasing weight
+     *          an empty list if no path can be found from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     */
+    public List<DGPath> kShortestPaths(String startId, String targetId, int k, WeightProfile<E> profile) {
+        return this.yenShortestPaths(startId, targetId, k, profile);
+    }
+
+    private List<DGPath> yenShortestPaths(String startId, String targetId, int k, ToDoubleFunction<E> weightMapper) {
+        V start = getVertexById(startId);
+        V target = getVertexById(targetId);
+        if (start == null || target == null) return null;
+
+        SearchStatistics statistics = this.startStatistics("kShortestPaths");
+        List<DGPath> shortestPaths = this.yenShortestPaths(start, target, k, weightMapper, statistics);
+        // all paths share the statistics of the complete search
+        for (DGPath path : shortestPaths) path.statistics = statistics;
+        this.recordStatistics(statistics);
+        return shortestPaths;
+    }
+
+    private List<DGPath> yenShortestPaths(V start, V target, int k, ToDoubleFunction<E> weightMapper,
+                                          SearchStatistics statistics) {
+        List<DGPath> shortestPaths = new ArrayList<>();
+        if (k <= 0 || this.isUnreachable(start, target)) return shortestPaths;
+
+        ShortestPathTree towardsTarget = this.buildShortestPathTree(target.getId(), weightMapper, true, statistics);
+        DGPath shortest = towardsTarget.getPath(start.getId());
+        if (shortest == null) return shortestPaths;
+        shortestPaths.add(shortest);
+
+        PriorityQueue<DGPath> candidates = new PriorityQueue<>(Comparator.comparingDouble(DGPath::getTotalWeight));
+        Set<List<V>> known = new HashSet<>();
+        known.add(new ArrayList<>(shortest.vertices));
+
+        while (shortestPaths.size() < k) {
+            List<V> previous = new ArrayList<>(shortestPaths.get(shortestPaths.size() - 1).vertices);
+
+            // the weight of the root of the previous path up to every spur vertex
+            double[] rootWeights = new double[previous.size()];
+            for (int i = 1; i < previous.size(); i++) {
+                rootWeights[i] = rootWeights[i - 1] + weightMapper.applyAsDouble(getEdge(previous.get(i - 1), previous.get(i)));
+            }
+
+            // every spur search counts its own work, because they run in parallel
+            SearchStatistics[] spurStatistics = new SearchStatistics[previous.size() - 1];
+            if (statistics != null) Arrays.setAll(spurStatistics, i -> new SearchStatistics("spurPath"));
+            List<DGPath> spurPaths = IntStream.range(0, previous.size() - 1).parallel()
+                    .mapToObj(i -> this.spurPath(previous, i, rootWeights[i], shortestPaths, towardsTarget,
+                            weightMapper, spurStatistics[i]))
+                    .collect(Collectors.toList());
+            if (statistics != null) {
+                for (SearchStatistics spur : spurStatistics) statistics.add(spur);
+            }
+            for (DGPath candidate : spurPaths) {
+                if (candidate != null && known.add(new ArrayList<>(candidate.vertices))) candidates.add(candidate);
+            }
+
+            if (candidates.isEmpty()) break;
+            shortestPaths.add(candidates.poll());
+        }
+        return shortestPaths;
+    }
+
+    /**
+     * finds the shortest path that shares the root of the previous path up to its spur vertex at spurIndex
+     * and then deviates from all earlier paths with the same root
+     * @return  the complete path from start to target, or null if no such path exists
+     */
+    private DGPath spurPath(List<V> previous, int spurIndex, double rootWeight, List<DGPath> shortestPaths,
+                            ShortestPathTree towardsTarget, ToDoubleFunction<E> weightMapper,
+                            SearchStatistics statistics) {
+        List<V> root = previous.subList(0, spurIndex + 1);
+        V spur = previous.get(spurIndex);
+        V target = previous.get(previous.size() - 1);
+
+        Set<V> excludedFromSpur = new HashSet<>();
+        for (DGPath path : shortestPaths) {
+            if (path.vertices.size() <= spurIndex + 1) continue;
+            Iterator<V> vertices = path.vertices.iterator();
+            boolean sameRoot = true;
+            for (int i = 0; i <= spurIndex && sameRoot; i++) sameRoot = vertices.next().equals(root.get(i));
+            if (sameRoot) excludedFromSpur.add(vertices.next());
+        }
+
+        DGPath path = new DGPath();
+        path.visited.add(spur);
+        DSPSearch search = new DSPSearch(spur, target, false, weightMapper,
+                (v, t) -> towardsTarget.getWeightTo(v), path).withStatistics(statistics);
+        search.excluded = new HashSet<>(root.subList(0, spurIndex));
+        search.excludedFromOrigin = excludedFromSpur;
+        if (this.completeSearch(search, target) == null) return null;
+
+        // prepend the root towards the spur vertex
+        for (int i = spurIndex - 1; i >= 0; i--) path.vertices.addFirst(root.get(i));
+        path.totalWeight += rootWeight;
+        return path;
+    }
+
+    /**
+     * Calculates all vertices that can be reached from start by a path with a total weight within the budget,
+     * e.g. to draw an isochrone of travel time.
+     * The dijkstra search stops as soon as the lightest path in its frontier exceeds the budget,
+     * such that it never explores the vertices beyond.
+     * @param startId       id of the start vertex of all paths
+     * @param budget        the maximum weight of a path
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  the weight of the shortest path to every vertex within the budget, in order of increasing weight
+     *          returns null if start cannot be matched with a vertex in the graph
+     */
+    public Map<V, Double> reachableWithin(String startId, double budget, Function<E,Double> weightMapper) {
+        return this.boundedSearch(startId, budget, weightMapper::apply);
+    }
+
+    /**
+     * Calculates all vertices that can be reached from start by a path with a total weight within the budget
+     * with the edge weights of a profile, which are calculated without boxing
+     * @param startId       id of the start vertex of all paths
+     * @param budget        the maximum weight of a path
+     * @param profile       provides the weight of every edge
+     * @return  the weight of the shortest path to every vertex within the budget, in order of increasing weight
+     *          returns null if start cannot be matched with a vertex in the graph
+     */
+    public Map<V, Double> reachableWithin(String startId, double budget, WeightProfile<E> profile) {
+        return this.boundedSearch(startId, budget, profile);
+    }
+
+    private Map<V, Double> boundedSearch(String startId, double budget, ToDoubleFunction<E> weightMapper) {
+        V start = getVertexById(startId);
+        if (start == null) return null;
+
+        SearchStatistics statistics = this.startStatistics("reachableWithin");
+        Map<V, Double> reachable = new LinkedHashMap<>();
+        DSPSearch search = new DSPSearch(start, null, false, weightMapper, null, new DGPath())
+                .withStatistics(statistics);
+        while (!search.frontier.isEmpty() && search.frontier.minPriority() <= budget) {
+            DSPNode dspNode = search.settleNext();
+            reachable.put(dspNode.vertex, dspNode.weightSumTo);
+            search.relaxEdges();
+        }
+        this.recordStatistics(statistics);
+        return reachable;
+    }
+
+    /**
+     * represents the result of a one-to-all shortest path search:
+     * the weight of the shortest path and the parent on that path of every vertex that can be reached from start
+     * A reverse tree represents the result of an all-to-one search, with the shortest paths from every vertex
+     * towards its root, in which case all methods refer to paths in the opposite direction.
+     */
+    public class ShortestPathTree {
+        private final V start;                      // the root of the tree
+        private final boolean reverse;              // whether the paths lead towards the root instead of from it
+        private final ToDoubleFunction<E> weightMapper;
+        private final Map<V, DSPNode> progressData;
+        private final List<DSPNode> nodesByIndex;    // all nodes that have ever been in the tree, by their index
+        private SearchStatistics statistics = null;  // the work of the search that built the tree, if collected
+
+        /**
+         * representation invariants:
+         * 1. progressData holds a node for every vertex that can be reached from start, and for no other vertex
+         * 2. the fromVertex of each node is the last vertex before it on a shortest path from start,
+         *    and null for the node of start
+         * 3. weightSumTo of each node is the weight of that shortest path
+         */
+
+        private ShortestPathTree(V start, boolean reverse, ToDoubleFunction<E> weightMapper,
+                                 Map<V, DSPNode> progressData, List<DSPNode> nodesByIndex) {
+            this.start = start;
+            this.reverse = reverse;
+            this.weightMapper = weightMapper;
+            this.progressData = progressData;
+            this.nodesByIndex = nodesByIndex;
+        }
+
+        public V getStart() {
+            return this.start;
+        }
+
+        public boolean isReverse() {
+            return this.reverse;
+        }
+
+        /**
+         * @return  the statistics of the search that built this tree,
+         *          or null if the graph was not collecting statistics at the time
+         */
+        public SearchStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        /**
+         * @return  the number of vertices in the tree, including start
+         */
+        public int size() {
+            return this.progressData.size();
+        }
+
+        public Set<V> getReachableVertices() {
+            return Collections.unmodifiableSet(this.progressData.keySet());
+        }
+
+        public boolean isReachable(String targetId) {
+            return this.progressData.containsKey(getVertexById(targetId));
+        }
+
+        /**
+         * @param targetId
+         * @return  the weight of the shortest path from start to target (from target to start in a reverse tree)
+         *          Double.POSITIVE_INFINITY if target cannot be matched with a vertex or cannot be reached
+         */
+        public double getWeightTo(String targetId) {
+            DSPNode dspNode = this.progressData.get(getVertexById(targetId));
+            return dspNode != null ? dspNode.weightSumTo : Double.POSITIVE_INFINITY;
+        }
+
+        double getWeightTo(V vertex) {
+            DSPNode dspNode = this.progressData.get(vertex);
+            return dspNode != null ? dspNode.weightSumTo : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * reconstructs the shortest path from start to target out of the tree
+         * (or from target to start in a reverse tree)
+         * the vertices on the path are registered as visited
+         * @param targetId
+         * @return  the shortest path from start to target
+         *          returns null if target cannot be matched with a vertex in the graph
+         *                          or cannot be reached from start
+         */
+        public DGPath getPath(String targetId) {
+            DSPNode dspNode = this.progressData.get(getVertexById(targetId));
+            if (dspNode == null) return null;
+
+            DGPath path = new DGPath();
+            path.totalWeight = dspNode.weightSumTo;
+            while (dspNode != null) {
+                if (this.reverse) path.vertices.addLast(dspNode.vertex);
+                else path.vertices.addFirst(dspNode.vertex);
+                path.visited.add(dspNode.vertex);
+                dspNode = this.progressData.get(dspNode.fromVertex);
+            }
+            return path;
+        }
+
+        /**
+         * Repairs the tree incrementally after the weight of the edge from fromVertex to toVertex has changed,
+         * instead of recalculating all shortest paths from scratch.
+         * If the edge is part of the tree, the subtree below it is detached and re-attached via the cheapest
+         * in-coming edges from the rest of the tree. Then the paths that have become shorter, via the edge itself
+         * or via the re-attached vertices, are propagated by a dijkstra search that only visits affected vertices.
+         * @param fromVertex
+         * @param toVertex
+         * @return  the number of vertices whose shortest path weight has been updated
+         */
+        public int edgeChanged(V fromVertex, V toVertex) {
+            E edge = getEdge(fromVertex, toVertex);
+            if (this.reverse) {
+                // a reverse tree extends from the end of an edge towards its start
+                V swap = fromVertex;
+                fromVertex = toVertex;
+                toVertex = swap;
+            }
+            DSPNode fromNode = this.progressData.get(fromVertex);
+            if (fromNode == null || edge == null) return 0;
+
+            Set<V> updated = new HashSet<>();
+            Map<V, DSPNode> detached = new HashMap<>();
+            IndexMinPQ frontier = new IndexMinPQ(this.nodesByIndex.size());
+
+            DSPNode toNode = this.progressData.get(toVertex);
+            if (toNode != null && fromNode.vertex.equals(toNode.fromVertex)) {
+                // the edge is part of the tree: all paths through it may have become longer
+                this.detachSubtree(toNode, detached);
+                for (DSPNode dspNode : detached.values()) {
+                    this.forEachTowardsRoot(dspNode.vertex, (neighbour, e) -> {
+                        DSPNode parent = this.progressData.get(neighbour);
+                        if (parent == null) return;
+                        double distance = parent.weightSumTo + this.weightMapper.applyAsDouble(e);
+                        if (distance < dspNode.weightSumTo) {
+                            dspNode.weightSumTo = distance;
+                            dspNode.fromVertex = neighbour;
+                        }
+                    });
+                    if (dspNode.weightSumTo < Double.POSITIVE_INFINITY) {
+                        frontier.insert(dspNode.index, dspNode.weightSumTo);
+                    }
                 }
+                updated.addAll(detached.keySet());
             }
 
-            nextDspNode.marked = true; // mark as processed
+            // the edge itself may provide a shorter path towards toVertex
+            this.relax(fromNode, toVertex, edge, detached, frontier, updated);
 
-            // TODO find the next nearest node that is not marked yet
-            nextDspNode = progressData.values()
-                    .stream()
-                    .filter(dspNode -> !dspNode.marked)
-                    .reduce((dspNode, dspNode2) -> {
-                        if (dspNode.compareTo(dspNode2) < 0) return dspNode;
-                        else return dspNode2;
-                    }).orElse(null);
+            // propagate all shorter paths, re-attaching the nodes in order of their new path weight
+            while (!frontier.isEmpty()) {
+                DSPNode dspNode = this.nodesByIndex.get(frontier.delMin());
+                this.progressData.put(dspNode.vertex, dspNode);
+                detached.remove(dspNode.vertex);
+                this.forEachTowardsLeaves(dspNode.vertex,
+                        (neighbour, e) -> this.relax(dspNode, neighbour, e, detached, frontier, updated));
+            }
+
+            // the remaining detached vertices cannot be reached anymore
+            return updated.size();
         }
 
-        // no path found, graph was not connected ???
-        return null;
+        /**
+         * removes the node and all its descendants from the tree, and collects them as detached nodes
+         * without a path
+         */
+        private void detachSubtree(DSPNode root, Map<V, DSPNode> detached) {
+            Deque<DSPNode> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                DSPNode dspNode = stack.pop();
+                this.forEachTowardsLeaves(dspNode.vertex, (neighbour, e) -> {
+                    DSPNode child = this.progressData.get(neighbour);
+                    if (child != null && dspNode.vertex.equals(child.fromVertex)) stack.push(child);
+                });
+                this.progressData.remove(dspNode.vertex);
+                dspNode.weightSumTo = Double.POSITIVE_INFINITY;
+                dspNode.fromVertex = null;
+                detached.put(dspNode.vertex, dspNode);
+            }
+        }
+
+        // the edges that extend the tree away from its root are the in-coming edges in a reverse tree
+        private void forEachTowardsLeaves(V vertex, BiConsumer<V, E> action) {
+            if (this.reverse) forEachIncoming(vertex, action);
+            else forEachOutgoing(vertex, action);
+        }
+
+        private void forEachTowardsRoot(V vertex, BiConsumer<V, E> action) {
+            if (this.reverse) forEachOutgoing(vertex, action);
+            else forEachIncoming(vertex, action);
+        }
+
+        private void relax(DSPNode fromNode, V neighbour, E edge,
+                           Map<V, DSPNode> detached, IndexMinPQ frontier, Set<V> updated) {
+            double distance = fromNode.weightSumTo + this.weightMapper.applyAsDouble(edge);
+            DSPNode dspNode = this.progressData.get(neighbour);
+            if (dspNode == null) dspNode = detached.get(neighbour);
+            if (dspNode == null) {
+                // the neighbour has become reachable
+                dspNode = new DSPNode(neighbour, this.nodesByIndex.size());
+                dspNode.weightSumTo = Double.POSITIVE_INFINITY;
+                this.nodesByIndex.add(dspNode);
+                detached.put(neighbour, dspNode);
+                frontier.ensureCapacity(this.nodesByIndex.size());
+            }
+            if (distance < dspNode.weightSumTo) {
+                dspNode.weightSumTo = distance;
+                dspNode.fromVertex = fromNode.vertex;
+                frontier.insertOrDecrease(dspNode.index, distance);
+                updated.add(neighbour);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ShortestPathTree %s %s with %d vertices",
+                    this.reverse ? "towards" : "from", this.start.getId(), this.size());
+        }
+    }
+
+
+    /**
+     * calculates a minimum spanning tree of the graph by the lazy variant of Prim's algorithm,
+     * considering every directed edge as a connection in both directions
+     * if the graph is not connected, the result is a minimum spanning forest with a tree for every component
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  a new graph with all vertices, that has a connection for every edge of the tree
+     */
+    public DirectedGraph<V, E> minimumSpanningTree(Function<E, Double> weightMapper) {
+        return this.primMinimumSpanningTree(weightMapper);
     }
 
+    /**
+     * Prim's algorithm grows every tree from an arbitrary root by repeatedly adding the cheapest edge
+     * that leaves the tree. The lazy variant keeps all candidate edges on a heap and skips the candidates
+     * that have become obsolete when they are removed from it.
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  a new graph with all vertices, that has a connection for every edge of the tree
+     */
+    public DirectedGraph<V, E> primMinimumSpanningTree(Function<E, Double> weightMapper) {
+        DirectedGraph<V, E> tree = new DirectedGraph<>();
+        PriorityQueue<MSTEdge> candidates = new PriorityQueue<>();
+
+        for (V root : this.getVertices()) {
+            if (tree.getVertexById(root.getId()) != null) continue;
+            tree.addOrGetVertex(root);
+            this.addMSTCandidates(root, tree, candidates, weightMapper);
+
+            while (!candidates.isEmpty()) {
+                MSTEdge cheapest = candidates.poll();
+                if (tree.getVertexById(cheapest.to.getId()) != null) continue;
+                tree.addConnection(cheapest.from, cheapest.to, cheapest.edge);
+                this.addMSTCandidates(cheapest.to, tree, candidates, weightMapper);
+            }
+        }
+        return tree;
+    }
+
+    // adds the edges in both directions between vertex and all its neighbours outside the tree as candidates
+    private void addMSTCandidates(V vertex, DirectedGraph<V, E> tree,
+                                  PriorityQueue<MSTEdge> candidates, Function<E, Double> weightMapper) {
+        BiConsumer<V, E> addCandidate = (neighbour, edge) -> {
+            if (tree.getVertexById(neighbour.getId()) == null) {
+                candidates.add(new MSTEdge(vertex, neighbour, edge, weightMapper.apply(edge)));
+            }
+        };
+        this.forEachOutgoing(vertex, addCandidate);
+        this.forEachIncoming(vertex, addCandidate);
+    }
+
+    /**
+     * Kruskal's algorithm adds all edges in order of increasing weight, skipping every edge that would
+     * close a cycle, which is detected by a union-find of the vertices that have been connected so far
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     * @return  a new graph with all vertices, that has a connection for every edge of the tree
+     */
+    public DirectedGraph<V, E> kruskalMinimumSpanningTree(Function<E, Double> weightMapper) {
+        DirectedGraph<V, E> tree = new DirectedGraph<>();
+        Map<V, Integer> indices = new HashMap<>();
+        for (V vertex : this.getVertices()) {
+            indices.put(vertex, indices.size());
+            tree.addOrGetVertex(vertex);
+        }
+
+        List<MSTEdge> candidates = new ArrayList<>(this.getNumEdges());
+        for (V from : this.getVertices()) {
+            this.forEachOutgoing(from,
+                    (to, edge) -> candidates.add(new MSTEdge(from, to, edge, weightMapper.apply(edge))));
+        }
+        Collections.sort(candidates);
+
+        UnionFind components = new UnionFind(indices.size());
+        for (MSTEdge candidate : candidates) {
+            if (components.getNumSets() == 1) break;
+            if (components.union(indices.get(candidate.from), indices.get(candidate.to))) {
+                tree.addConnection(candidate.from, candidate.to, candidate.edge);
+            }
+        }
+        return tree;
+    }
+
+    // helper class to register a candidate edge of a minimum spanning tree
+    private class MSTEdge implements Comparable<MSTEdge> {
+        private final V from;
+        private final V to;
+        private final E edge;
+        private final double weight;
+
+        private MSTEdge(V from, V to, E edge, double weight) {
+            this.from = from;
+            this.to = to;
+            this.edge = edge;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(MSTEdge other) {
+            return Double.compare(this.weight, other.weight);
+        }
+    }
 
     @Override
     public String toString() {
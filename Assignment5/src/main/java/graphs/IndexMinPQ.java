@@ -0,0 +1,181 @@
+package graphs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed minimum priority queue of integer keys 0..capacity-1 with a double priority per key.
+ * Implemented as a binary heap with an inverse position index, such that
+ * insert, delMin and decreaseKey all run in O(log n) and contains runs in O(1)
+ */
+public class IndexMinPQ {
+    private int size = 0;               // number of keys currently on the heap
+    private int[] heap;                 // heap[i] = key at heap position i, heap positions start at 1
+    private int[] position;             // position[key] = heap position of key, or 0 if key is not on the heap
+    private double[] priorities;        // priorities[key] = priority of key
+
+    /**
+     * representation invariants:
+     * 1. for all 1 < i <= size: priorities[heap[i/2]] <= priorities[heap[i]]
+     * 2. for all 1 <= i <= size: position[heap[i]] == i
+     * 3. position[key] == 0 for every key that is not on the heap
+     */
+
+    public IndexMinPQ(int capacity) {
+        this.heap = new int[capacity + 1];
+        this.position = new int[capacity];
+        this.priorities = new double[capacity];
+    }
+
+    public int getCapacity() {
+        return this.position.length;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean contains(int key) {
+        return this.position[key] != 0;
+    }
+
+    public double getPriority(int key) {
+        return this.priorities[key];
+    }
+
+    /**
+     * adds key to the heap with the given priority
+     * @param key       must be in range 0..capacity-1 and not yet be on the heap
+     * @param priority
+     */
+    public void insert(int key, double priority) {
+        if (this.contains(key)) throw new IllegalArgumentException("key " + key + " is already on the heap");
+        this.size++;
+        this.heap[this.size] = key;
+        this.position[key] = this.size;
+        this.priorities[key] = priority;
+        this.swim(this.size);
+    }
+
+    /**
+     * lowers the priority of a key that is already on the heap
+     * @param key
+     * @param priority  the new priority, which shall not exceed the current priority of the key
+     */
+    public void decreaseKey(int key, double priority) {
+        if (!this.contains(key)) throw new NoSuchElementException("key " + key + " is not on the heap");
+        if (priority > this.priorities[key]) {
+            throw new IllegalArgumentException("priority " + priority + " exceeds the current priority of key " + key);
+        }
+        this.priorities[key] = priority;
+        this.swim(this.position[key]);
+    }
+
+    /**
+     * changes the priority of a key that is already on the heap into any higher or lower value
+     * @param key
+     * @param priority
+     */
+    public void changeKey(int key, double priority) {
+        if (!this.contains(key)) throw new NoSuchElementException("key " + key + " is not on the heap");
+        this.priorities[key] = priority;
+        this.swim(this.position[key]);
+        this.sink(this.position[key]);
+    }
+
+    /**
+     * inserts the key, or lowers its priority if the key is on the heap already with a higher priority
+     * @param key
+     * @param priority
+     * @return  whether the heap has been changed
+     */
+    public boolean insertOrDecrease(int key, double priority) {
+        if (!this.contains(key)) {
+            this.insert(key, priority);
+            return true;
+        }
+        if (priority < this.priorities[key]) {
+            this.decreaseKey(key, priority);
+            return true;
+        }
+        return false;
+    }
+
+    public int minKey() {
+        if (this.size == 0) throw new NoSuchElementException("priority queue is empty");
+        return this.heap[1];
+    }
+
+    public double minPriority() {
+        return this.priorities[this.minKey()];
+    }
+
+    /**
+     * removes the key with the lowest priority from the heap
+     * @return  the removed key
+     */
+    public int delMin() {
+        int min = this.minKey();
+        this.exchange(1, this.size);
+        this.size--;
+        this.sink(1);
+        this.position[min] = 0;
+        return min;
+    }
+
+    /**
+     * removes all keys from the heap in O(size), such that the queue can be reused for another search
+     */
+    public void clear() {
+        for (int i = 1; i <= this.size; i++) {
+            this.position[this.heap[i]] = 0;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * enlarges the range of keys that can be held by the queue
+     * the capacity is at least doubled, such that a sequence of small enlargements takes amortized constant time
+     * @param capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= this.position.length) return;
+        capacity = Math.max(capacity, 2 * this.position.length);
+        this.heap = Arrays.copyOf(this.heap, capacity + 1);
+        this.position = Arrays.copyOf(this.position, capacity);
+        this.priorities = Arrays.copyOf(this.priorities, capacity);
+    }
+
+    private void swim(int i) {
+        while (i > 1 && this.less(i, i / 2)) {
+            this.exchange(i, i / 2);
+            i = i / 2;
+        }
+    }
+
+    private void sink(int i) {
+        while (2 * i <= this.size) {
+            int child = 2 * i;
+            if (child < this.size && this.less(child + 1, child)) child++;
+            if (!this.less(child, i)) break;
+            this.exchange(i, child);
+            i = child;
+        }
+    }
+
+    private boolean less(int i, int j) {
+        return this.priorities[this.heap[i]] < this.priorities[this.heap[j]];
+    }
+
+    private void exchange(int i, int j) {
+        int key = this.heap[i];
+        this.heap[i] = this.heap[j];
+        this.heap[j] = key;
+        this.position[this.heap[i]] = i;
+        this.position[this.heap[j]] = j;
+    }
+}
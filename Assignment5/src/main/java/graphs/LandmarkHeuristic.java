@@ -0,0 +1,136 @@
+package graphs;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A* heuristic by ALT preprocessing (A*, Landmarks and the Triangle inequality).
+ * For a small set of landmark vertices, the shortest path weights from every landmark to all vertices
+ * and from all vertices to every landmark are calculated in advance.
+ * By the triangle inequality, for any landmark L and vertices v and t:
+ *      d(v,t) >= d(L,t) - d(L,v)   and   d(v,t) >= d(v,L) - d(t,L)
+ * The maximum of these bounds over all landmarks is an admissible and consistent estimate of d(v,t),
+ * which does not depend on the geometry of the graph and works for any non-negative edge weight.
+ * @param <V>
+ * @param <E>
+ */
+public class LandmarkHeuristic<V extends Identifiable, E> implements BiFunction<V, V, Double> {
+    private final Function<E, Double> weightMapper;
+    private final List<V> landmarks = new ArrayList<>();
+    private final List<DirectedGraph<V, E>.ShortestPathTree> fromLandmarks = new ArrayList<>();
+    private final List<DirectedGraph<V, E>.ShortestPathTree> towardsLandmarks = new ArrayList<>();
+
+    /**
+     * representation invariants:
+     * 1. fromLandmarks.get(i) is the shortest path tree from landmarks.get(i)
+     * 2. towardsLandmarks.get(i) is the reverse shortest path tree towards landmarks.get(i)
+     */
+
+    /**
+     * selects the landmarks by farthest selection: every next landmark is the vertex that is farthest away
+     * from all landmarks selected so far, such that the landmarks spread out over the borders of the graph
+     * @param graph
+     * @param numLandmarks  the number of landmarks to be selected, at most the number of vertices
+     * @param weightMapper  provides a function, by which the weight of an edge can be retrieved or calculated
+     */
+    public LandmarkHeuristic(DirectedGraph<V, E> graph, int numLandmarks, Function<E, Double> weightMapper) {
+        this.weightMapper = weightMapper;
+        if (graph.getNumVertices() == 0) return;
+        numLandmarks = Math.min(numLandmarks, graph.getNumVertices());
+
+        // the round trip weight from every vertex to its nearest landmark so far
+        Map<V, Double> nearestLandmark = new HashMap<>();
+        for (V vertex : graph.getVertices()) {
+            nearestLandmark.put(vertex, Double.POSITIVE_INFINITY);
+        }
+
+        // the first landmark is the vertex farthest away from an arbitrary vertex
+        V arbitrary = graph.getVertices().iterator().next();
+        DirectedGraph<V, E>.ShortestPathTree tree = graph.shortestPathTree(arbitrary.getId(), weightMapper);
+        V next = arbitrary;
+        for (V vertex : tree.getReachableVertices()) {
+            if (tree.getWeightTo(vertex) > tree.getWeightTo(next)) next = vertex;
+        }
+
+        while (next != null && this.landmarks.size() < numLandmarks) {
+            this.addLandmark(graph, next);
+
+            // vertices that cannot reach or be reached by any landmark yet are the farthest of all
+            next = null;
+            double farthest = -1.0;
+            for (Map.Entry<V, Double> entry : nearestLandmark.entrySet()) {
+                double roundTrip = this.getRoundTripWeight(this.landmarks.size() - 1, entry.getKey());
+                if (roundTrip < entry.getValue()) entry.setValue(roundTrip);
+                if (entry.getValue() > farthest && !this.landmarks.contains(entry.getKey())) {
+                    farthest = entry.getValue();
+                    next = entry.getKey();
+                }
+            }
+        }
+    }
+
+    private void addLandmark(DirectedGraph<V, E> graph, V landmark) {
+        this.landmarks.add(landmark);
+        this.fromLandmarks.add(graph.shortestPathTree(landmark.getId(), this.weightMapper));
+        this.towardsLandmarks.add(graph.reverseShortestPathTree(landmark.getId(), this.weightMapper));
+    }
+
+    private double getRoundTripWeight(int landmarkIndex, V vertex) {
+        return this.fromLandmarks.get(landmarkIndex).getWeightTo(vertex)
+                + this.towardsLandmarks.get(landmarkIndex).getWeightTo(vertex);
+    }
+
+    public List<V> getLandmarks() {
+        return Collections.unmodifiableList(this.landmarks);
+    }
+
+    public Function<E, Double> getWeightMapper() {
+        return this.weightMapper;
+    }
+
+    /**
+     * @return  all shortest path trees from and towards the landmarks, which can be maintained
+     *          on changes of edge weights to keep the estimates admissible
+     */
+    public List<DirectedGraph<V, E>.ShortestPathTree> getShortestPathTrees() {
+        List<DirectedGraph<V, E>.ShortestPathTree> trees = new ArrayList<>(this.fromLandmarks);
+        trees.addAll(this.towardsLandmarks);
+        return trees;
+    }
+
+    /**
+     * estimates the weight of the shortest path from vertex to target
+     * @param vertex
+     * @param target
+     * @return  the highest lower bound of the shortest path weight that follows from any of the landmarks
+     *          0.0 if no landmark provides a bound
+     */
+    @Override
+    public Double apply(V vertex, V target) {
+        double estimate = 0.0;
+        for (int i = 0; i < this.landmarks.size(); i++) {
+            DirectedGraph<V, E>.ShortestPathTree from = this.fromLandmarks.get(i);
+            double fromToTarget = from.getWeightTo(target);
+            double fromToVertex = from.getWeightTo(vertex);
+            if (fromToTarget < Double.POSITIVE_INFINITY && fromToVertex < Double.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, fromToTarget - fromToVertex);
+            }
+
+            DirectedGraph<V, E>.ShortestPathTree towards = this.towardsLandmarks.get(i);
+            double vertexToLandmark = towards.getWeightTo(vertex);
+            double targetToLandmark = towards.getWeightTo(target);
+            if (vertexToLandmark < Double.POSITIVE_INFINITY && targetToLandmark < Double.POSITIVE_INFINITY) {
+                estimate = Math.max(estimate, vertexToLandmark - targetToLandmark);
+            }
+        }
+        return estimate;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "LandmarkHeuristic[", "]");
+        for (V landmark : this.landmarks) joiner.add(landmark.getId());
+        return joiner.toString();
+    }
+}
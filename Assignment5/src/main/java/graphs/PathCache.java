@@ -0,0 +1,278 @@
+package graphs;
+
+import java.util.*;
+
+/**
+ * Bounded cache of shortest paths in front of the searches of a graph, keyed by start, target and weight profile,
+ * for traffic that asks for the same routes again and again.
+ * The capacity bounds the total number of vertices on all cached paths, such that long paths take more space.
+ * When the cache is full, the least recently used paths are evicted first.
+ * Cached paths are invalidated on changes of the graph:
+ * an edge with a higher weight only invalidates the paths that travel that edge,
+ * an edge with a lower weight may offer a shortcut to any path, and invalidates all paths of the affected profiles,
+ * and a structural change of the graph invalidates all paths.
+ * A path that is found while the graph changes is not cached, because it may already be outdated.
+ * Cached paths are shared between all callers, and should not be modified.
+ * @param <V>
+ * @param <E>
+ */
+public class PathCache<V extends Identifiable, E> {
+    private final DirectedGraph<V, E> graph;
+    private final int capacity;             // maximum total number of vertices on all cached paths
+    private int modCount;                   // the number of structural changes of the graph when last validated
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<E, Set<Key>> keysByEdge = new IdentityHashMap<>();
+    private int size = 0;
+    private long epoch = 0;                 // the number of invalidations, to detect them during a search
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+
+    /**
+     * representation invariants:
+     * 1. entries are held in order of their last use, the least recently used entry first
+     * 2. keysByEdge holds the key of an entry under every edge of its path, and no other keys
+     * 3. size is the sum of the number of vertices of all cached paths, and does not exceed the capacity
+     */
+
+    private static class Key {
+        private final String startId;
+        private final String targetId;
+        private final WeightProfile<?> profile;
+
+        private Key(String startId, String targetId, WeightProfile<?> profile) {
+            this.startId = startId;
+            this.targetId = targetId;
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return this.startId.equals(other.startId) && this.targetId.equals(other.targetId)
+                    && this.profile.getName().equals(other.profile.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.startId, this.targetId, this.profile.getName());
+        }
+    }
+
+    private class Entry {
+        private final DirectedGraph<V, E>.DGPath path;
+        private final List<E> edges;
+
+        private Entry(DirectedGraph<V, E>.DGPath path, List<E> edges) {
+            this.path = path;
+            this.edges = edges;
+        }
+    }
+
+    /**
+     * @param graph
+     * @param capacity  the maximum total number of vertices on all cached paths
+     */
+    public PathCache(DirectedGraph<V, E> graph, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.graph = graph;
+        this.capacity = capacity;
+        this.modCount = graph.getModCount();
+    }
+
+    /**
+     * provides the shortest path from start to target from the cache,
+     * or searches the path by Dijkstra's algorithm and caches it for later requests
+     * @param startId
+     * @param targetId
+     * @param profile   provides the weight of every edge
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a vertex in the graph
+     *                          or no path can be found from start to target
+     */
+    public DirectedGraph<V, E>.DGPath shortestPath(String startId, String targetId, WeightProfile<E> profile) {
+        Key key = new Key(startId, targetId, profile);
+        long epoch;
+        synchronized (this) {
+            this.validate();
+            Entry entry = this.entries.get(key);
+            if (entry != null) {
+                this.hits++;
+                return entry.path;
+            }
+            this.misses++;
+            epoch = this.epoch;
+        }
+
+        DirectedGraph<V, E>.DGPath path = this.graph.dijkstraShortestPath(startId, targetId, profile);
+        if (path != null) this.put(key, path, epoch);
+        return path;
+    }
+
+    /**
+     * caches the path, unless the graph has changed since the search for the path has started
+     * @param key
+     * @param path
+     * @param epoch     the epoch at the start of the search
+     */
+    private synchronized void put(Key key, DirectedGraph<V, E>.DGPath path, long epoch) {
+        this.validate();
+        if (this.epoch != epoch) return;
+        int pathSize = path.getVertices().size();
+        if (pathSize > this.capacity || this.entries.containsKey(key)) return;
+
+        List<E> edges = new ArrayList<>(pathSize - 1);
+        V from = null;
+        for (V to : path.getVertices()) {
+            if (from != null) edges.add(this.graph.getEdge(from, to));
+            from = to;
+        }
+        for (E edge : edges) {
+            this.keysByEdge.computeIfAbsent(edge, e -> new HashSet<>()).add(key);
+        }
+        this.entries.put(key, new Entry(path, edges));
+        this.size += pathSize;
+
+        // evict the least recently used paths until the new path fits
+        Iterator<Map.Entry<Key, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.size > this.capacity) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            this.unlink(evicted.getKey(), evicted.getValue());
+            this.evictions++;
+        }
+    }
+
+    private void unlink(Key key, Entry entry) {
+        this.size -= entry.path.getVertices().size();
+        for (E edge : entry.edges) {
+            Set<Key> keys = this.keysByEdge.get(edge);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) this.keysByEdge.remove(edge);
+        }
+    }
+
+    private void remove(Key key) {
+        Entry entry = this.entries.remove(key);
+        if (entry != null) {
+            this.unlink(key, entry);
+            this.invalidations++;
+        }
+    }
+
+    // clears the cache after a structural change of the graph
+    private void validate() {
+        int graphModCount = this.graph.getModCount();
+        if (this.modCount != graphModCount) {
+            this.invalidations += this.entries.size();
+            this.clear();
+            this.modCount = graphModCount;
+            this.epoch++;
+        }
+    }
+
+    /**
+     * invalidates all cached paths that travel the edge
+     * @param edge
+     */
+    public synchronized void invalidate(E edge) {
+        // a search in progress may travel the edge as well
+        this.epoch++;
+        Set<Key> keys = this.keysByEdge.get(edge);
+        if (keys == null) return;
+        for (Key key : new ArrayList<>(keys)) this.remove(key);
+    }
+
+    /**
+     * invalidates the cached paths that may have been affected by a change of the weight of the edge
+     * @param edge      the edge after the change
+     * @param previous  a copy of the edge before the change, from which the previous weight can be calculated
+     */
+    public synchronized void edgeChanged(E edge, E previous) {
+        this.invalidate(edge);
+
+        // a lighter edge may shorten any path of its profile
+        Set<String> shortened = new HashSet<>();
+        for (Key key : this.entries.keySet()) {
+            @SuppressWarnings("unchecked")
+            WeightProfile<E> profile = (WeightProfile<E>) key.profile;
+            if (!shortened.contains(profile.getName())
+                    && profile.applyAsDouble(edge) < profile.applyAsDouble(previous)) {
+                shortened.add(profile.getName());
+            }
+        }
+        if (shortened.isEmpty()) return;
+        for (Key key : new ArrayList<>(this.entries.keySet())) {
+            if (shortened.contains(key.profile.getName())) this.remove(key);
+        }
+    }
+
+    /**
+     * removes all paths from the cache, without counting them as invalidated
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.keysByEdge.clear();
+        this.size = 0;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return  the total number of vertices on all cached paths
+     */
+    public synchronized int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return  the number of cached paths
+     */
+    public synchronized int getNumPaths() {
+        return this.entries.size();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return  the number of paths that have been removed to make room for other paths
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * @return  the number of paths that have been removed because of changes of the graph
+     */
+    public synchronized long getInvalidations() {
+        return this.invalidations;
+    }
+
+    /**
+     * @return  the fraction of all requests that have been answered from the cache
+     */
+    public synchronized double getHitRatio() {
+        long requests = this.hits + this.misses;
+        return requests == 0 ? 0.0 : (double) this.hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.ENGLISH,
+                "PathCache with %d paths (%d of %d vertices): %d hits, %d misses (%.1f%% hits), %d evictions, %d invalidations",
+                this.entries.size(), this.size, this.capacity, this.hits, this.misses, 100.0 * this.getHitRatio(),
+                this.evictions, this.invalidations);
+    }
+}
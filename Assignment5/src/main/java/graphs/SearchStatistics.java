@@ -0,0 +1,103 @@
+package graphs;
+
+import java.util.Locale;
+
+/**
+ * Measures the work of a single search: the vertices it has settled, the edges it has relaxed,
+ * the operations on its queue, stack or priority queue, and its duration,
+ * such that different search algorithms can be compared on the same queries.
+ * Statistics are collected by the searches of a DirectedGraph if enabled by setCollectingStatistics.
+ */
+public class SearchStatistics {
+    private final String algorithm;
+    private long settled = 0;           // vertices of which the search has started to explore the edges
+    private long relaxations = 0;       // edges that have been explored
+    private long pushes = 0;            // insertions into the frontier, including decreases of a priority
+    private long pops = 0;              // removals from the frontier
+    private int peakFrontier = 0;       // the largest size of the frontier during the search
+    private final long startNanos;
+    private long nanos = -1;            // the duration of the search, -1 while the search is in progress
+
+    SearchStatistics(String algorithm) {
+        this.algorithm = algorithm;
+        this.startNanos = System.nanoTime();
+    }
+
+    void countSettled() {
+        this.settled++;
+    }
+
+    void countRelaxation() {
+        this.relaxations++;
+    }
+
+    /**
+     * @param frontierSize  the size of the frontier after the push
+     */
+    void countPush(int frontierSize) {
+        this.pushes++;
+        if (frontierSize > this.peakFrontier) this.peakFrontier = frontierSize;
+    }
+
+    void countPop() {
+        this.pops++;
+    }
+
+    /**
+     * adds the work of another search, e.g. of a part of this search that ran on another thread
+     * @param other
+     */
+    void add(SearchStatistics other) {
+        this.settled += other.settled;
+        this.relaxations += other.relaxations;
+        this.pushes += other.pushes;
+        this.pops += other.pops;
+        this.peakFrontier = Math.max(this.peakFrontier, other.peakFrontier);
+    }
+
+    void end() {
+        this.nanos = System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * @return  the name of the search algorithm, e.g. "dijkstra"
+     */
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public long getSettled() {
+        return this.settled;
+    }
+
+    public long getRelaxations() {
+        return this.relaxations;
+    }
+
+    public long getPushes() {
+        return this.pushes;
+    }
+
+    public long getPops() {
+        return this.pops;
+    }
+
+    public int getPeakFrontier() {
+        return this.peakFrontier;
+    }
+
+    /**
+     * @return  the duration of the search in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH,
+                "%s: settled=%d relaxations=%d pushes=%d pops=%d peakFrontier=%d time=%.3f ms",
+                this.algorithm, this.settled, this.relaxations, this.pushes, this.pops, this.peakFrontier,
+                this.nanos / 1e6);
+    }
+}
@@ -0,0 +1,168 @@
+package graphs;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the statistics of many searches per algorithm, with a histogram of their latencies.
+ * The histogram has a bucket per power of two nanoseconds, such that recording a search takes constant time
+ * and memory, at a resolution of a factor two.
+ * Searches may be recorded from many threads at the same time.
+ */
+public class SearchStatisticsAggregator {
+    private static final int NUM_BUCKETS = 64;
+    private static final SearchStatisticsAggregator GLOBAL = new SearchStatisticsAggregator();
+
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+
+    // the totals of all searches of one algorithm
+    private static class Summary {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder settled = new LongAdder();
+        private final LongAdder relaxations = new LongAdder();
+        private final LongAdder pushes = new LongAdder();
+        private final LongAdder pops = new LongAdder();
+        private final LongAdder peakFrontier = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        // latencies[b] = number of searches with a duration in [2^b, 2^(b+1)) nanoseconds
+        private final AtomicLongArray latencies = new AtomicLongArray(NUM_BUCKETS);
+    }
+
+    /**
+     * @return  the aggregator to which all searches of all graphs are recorded
+     */
+    public static SearchStatisticsAggregator getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * adds the statistics of a completed search to the totals of its algorithm
+     * @param statistics
+     */
+    public void record(SearchStatistics statistics) {
+        Summary summary = this.summaries.computeIfAbsent(statistics.getAlgorithm(), a -> new Summary());
+        summary.count.increment();
+        summary.settled.add(statistics.getSettled());
+        summary.relaxations.add(statistics.getRelaxations());
+        summary.pushes.add(statistics.getPushes());
+        summary.pops.add(statistics.getPops());
+        summary.peakFrontier.add(statistics.getPeakFrontier());
+        summary.nanos.add(statistics.getNanos());
+        summary.latencies.incrementAndGet(bucketOf(statistics.getNanos()));
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * @param bucket
+     * @return  the exclusive upper bound in nanoseconds of the durations in the bucket,
+     *          capped at Long.MAX_VALUE for the last buckets, of which the bound does not fit a long
+     */
+    static long upperBoundOf(int bucket) {
+        return bucket >= 62 ? Long.MAX_VALUE : 1L << (bucket + 1);
+    }
+
+    /**
+     * @return  the names of all algorithms of which searches have been recorded, in alphabetical order
+     */
+    public SortedSet<String> getAlgorithms() {
+        return new TreeSet<>(this.summaries.keySet());
+    }
+
+    /**
+     * @param algorithm
+     * @return  the number of recorded searches of the algorithm
+     */
+    public long getCount(String algorithm) {
+        Summary summary = this.summaries.get(algorithm);
+        return summary == null ? 0 : summary.count.sum();
+    }
+
+    /**
+     * @param algorithm
+     * @return  the average number of settled vertices per search of the algorithm
+     */
+    public double getMeanSettled(String algorithm) {
+        Summary summary = this.summaries.get(algorithm);
+        return summary == null ? 0.0 : (double) summary.settled.sum() / summary.count.sum();
+    }
+
+    /**
+     * @param algorithm
+     * @return  the average number of edge relaxations per search of the algorithm
+     */
+    public double getMeanRelaxations(String algorithm) {
+        Summary summary = this.summaries.get(algorithm);
+        return summary == null ? 0.0 : (double) summary.relaxations.sum() / summary.count.sum();
+    }
+
+    /**
+     * @param algorithm
+     * @return  histogram[b] = the number of searches of the algorithm with a duration in [2^b, 2^(b+1)) nanoseconds
+     */
+    public long[] getLatencyHistogram(String algorithm) {
+        long[] histogram = new long[NUM_BUCKETS];
+        Summary summary = this.summaries.get(algorithm);
+        if (summary != null) {
+            for (int b = 0; b < NUM_BUCKETS; b++) histogram[b] = summary.latencies.get(b);
+        }
+        return histogram;
+    }
+
+    /**
+     * @param algorithm
+     * @param percentage
+     * @return  an upper bound in nanoseconds of the duration within which the percentage of all searches
+     *          of the algorithm have completed, accurate up to a factor two
+     */
+    public long getLatencyPercentile(String algorithm, double percentage) {
+        long[] histogram = this.getLatencyHistogram(algorithm);
+        long count = Arrays.stream(histogram).sum();
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentage / 100.0 * count));
+        long cumulative = 0;
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            cumulative += histogram[b];
+            if (cumulative >= rank) return upperBoundOf(b);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * forgets all recorded searches
+     */
+    public void reset() {
+        this.summaries.clear();
+    }
+
+    /**
+     * @return  a report with the average work and the latency histogram of every algorithm
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String algorithm : this.getAlgorithms()) {
+            Summary summary = this.summaries.get(algorithm);
+            long count = summary.count.sum();
+            if (count == 0) continue;
+            sb.append(String.format(Locale.ENGLISH,
+                    "%s: %d searches, mean settled=%.1f relaxations=%.1f pushes=%.1f pops=%.1f peakFrontier=%.1f"
+                            + " time=%.3f ms, p50<=%.3f ms p99<=%.3f ms\n",
+                    algorithm, count, (double) summary.settled.sum() / count,
+                    (double) summary.relaxations.sum() / count, (double) summary.pushes.sum() / count,
+                    (double) summary.pops.sum() / count, (double) summary.peakFrontier.sum() / count,
+                    summary.nanos.sum() / 1e6 / count,
+                    this.getLatencyPercentile(algorithm, 50) / 1e6, this.getLatencyPercentile(algorithm, 99) / 1e6));
+            long[] histogram = this.getLatencyHistogram(algorithm);
+            for (int b = 0; b < NUM_BUCKETS; b++) {
+                if (histogram[b] == 0) continue;
+                sb.append(String.format(Locale.ENGLISH, "    < %10.3f ms: %d\n", upperBoundOf(b) / 1e6, histogram[b]));
+            }
+        }
+        return sb.toString();
+    }
+}
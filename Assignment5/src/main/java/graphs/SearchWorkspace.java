@@ -0,0 +1,76 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * Reusable state for searches on a CSRGraph, sized once to the number of vertices.
+ * Instead of clearing all arrays between searches, every search starts a new generation
+ * and the state of a vertex is only valid if its stamp matches the current generation.
+ * As a result, a sequence of searches does not allocate memory proportional to the size of the graph.
+ * A workspace may be used by one thread at a time only.
+ */
+public class SearchWorkspace {
+    private int generation = 0;
+    private final int[] reachedStamp;       // reachedStamp[v] == generation if v has been reached in this search
+    private final int[] settledStamp;       // settledStamp[v] == generation if v has been settled in this search
+    final double[] weightSumTo;             // valid for reached vertices only
+    final int[] fromVertex;                 // valid for reached vertices only, -1 for the origin of the search
+    final IndexMinPQ frontier;              // priority queue of dijkstra searches
+    final int[] vertexQueue;                // fifo queue of breadth-first searches, or stack of depth-first searches
+    final int[] edgeCursor;                 // next edge to explore per stack level of depth-first searches
+
+    public SearchWorkspace(int numVertices) {
+        this.reachedStamp = new int[numVertices];
+        this.settledStamp = new int[numVertices];
+        this.weightSumTo = new double[numVertices];
+        this.fromVertex = new int[numVertices];
+        this.frontier = new IndexMinPQ(numVertices);
+        this.vertexQueue = new int[numVertices];
+        this.edgeCursor = new int[numVertices];
+    }
+
+    /**
+     * @return  the number of vertices that can be handled by searches in this workspace
+     */
+    public int getCapacity() {
+        return this.reachedStamp.length;
+    }
+
+    /**
+     * starts a new search, which invalidates the state of all vertices of the previous search
+     */
+    void begin() {
+        this.generation++;
+        if (this.generation == Integer.MAX_VALUE) {
+            // the stamps would overflow, so the arrays have to be cleared once in a (long) while
+            Arrays.fill(this.reachedStamp, 0);
+            Arrays.fill(this.settledStamp, 0);
+            this.generation = 1;
+        }
+        this.frontier.clear();
+    }
+
+    boolean isReached(int v) {
+        return this.reachedStamp[v] == this.generation;
+    }
+
+    /**
+     * registers (a better) path to v in the current search
+     * @param v
+     * @param weightSumTo
+     * @param fromVertex
+     */
+    void reach(int v, double weightSumTo, int fromVertex) {
+        this.reachedStamp[v] = this.generation;
+        this.weightSumTo[v] = weightSumTo;
+        this.fromVertex[v] = fromVertex;
+    }
+
+    boolean isSettled(int v) {
+        return this.settledStamp[v] == this.generation;
+    }
+
+    void settle(int v) {
+        this.settledStamp[v] = this.generation;
+    }
+}
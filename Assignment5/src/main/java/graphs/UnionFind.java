@@ -0,0 +1,86 @@
+package graphs;
+
+/**
+ * Disjoint sets of the integer elements 0..n-1 (union-find), with union by size and path compression,
+ * such that any sequence of find and union operations runs in nearly constant amortized time per operation
+ */
+public class UnionFind {
+    private final int[] parent;         // parent[e] = parent of element e in its tree, roots are their own parent
+    private final int[] size;           // size[r] = number of elements in the set of root r
+    private int numSets;
+
+    /**
+     * representation invariants:
+     * 1. every set is represented by a tree of elements, of which the root is the representative
+     * 2. size[r] is valid for roots only
+     * 3. numSets == the number of roots
+     */
+
+    public UnionFind(int numElements) {
+        this.parent = new int[numElements];
+        this.size = new int[numElements];
+        for (int e = 0; e < numElements; e++) {
+            this.parent[e] = e;
+            this.size[e] = 1;
+        }
+        this.numSets = numElements;
+    }
+
+    public int getNumElements() {
+        return this.parent.length;
+    }
+
+    public int getNumSets() {
+        return this.numSets;
+    }
+
+    /**
+     * finds the representative of the set of the element,
+     * and compresses the path towards it such that all elements on that path refer to the root directly
+     * @param element
+     * @return  the root of the set
+     */
+    public int find(int element) {
+        int root = element;
+        while (this.parent[root] != root) root = this.parent[root];
+        while (this.parent[element] != root) {
+            int next = this.parent[element];
+            this.parent[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    public boolean connected(int e1, int e2) {
+        return this.find(e1) == this.find(e2);
+    }
+
+    /**
+     * @param element
+     * @return  the number of elements in the set of the element
+     */
+    public int getSetSize(int element) {
+        return this.size[this.find(element)];
+    }
+
+    /**
+     * merges the sets of both elements, attaching the smaller tree below the root of the larger one
+     * @param e1
+     * @param e2
+     * @return  whether the sets have been merged, false if both elements were in the same set already
+     */
+    public boolean union(int e1, int e2) {
+        int r1 = this.find(e1);
+        int r2 = this.find(e2);
+        if (r1 == r2) return false;
+        if (this.size[r1] < this.size[r2]) {
+            int swap = r1;
+            r1 = r2;
+            r2 = swap;
+        }
+        this.parent[r2] = r1;
+        this.size[r1] += this.size[r2];
+        this.numSets--;
+        return true;
+    }
+}
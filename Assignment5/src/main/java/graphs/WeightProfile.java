@@ -0,0 +1,44 @@
+package graphs;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A named way to calculate the weight of an edge as a primitive double, without boxing.
+ * Graph representations may precalculate the weights of all edges per profile, identified by its name.
+ * Unlike a plain lambda expression, a profile is not a functional interface,
+ * such that search methods can be overloaded for both profiles and java.util.function.Function mappers.
+ * @param <E>
+ */
+public interface WeightProfile<E> extends ToDoubleFunction<E> {
+
+    /**
+     * @return  the name that identifies the profile, e.g. in a CSRGraph
+     */
+    String getName();
+
+    /**
+     * creates a profile from a name and a function
+     * @param name
+     * @param weigher   calculates the weight of an edge
+     * @param <E>
+     * @return
+     */
+    static <E> WeightProfile<E> of(String name, ToDoubleFunction<E> weigher) {
+        return new WeightProfile<E>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public double applyAsDouble(E edge) {
+                return weigher.applyAsDouble(edge);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
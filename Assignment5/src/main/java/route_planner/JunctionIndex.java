@@ -0,0 +1,141 @@
+package route_planner;
+
+import java.util.*;
+
+/**
+ * Static 2-d tree over the RD-coordinates of a collection of junctions,
+ * for nearest-junction and radius queries in O(log n) expected time instead of a linear scan.
+ * The tree is laid out implicitly in arrays: the junction at the middle of every range splits that range,
+ * alternating between the x- and y-coordinate at every level of the tree.
+ */
+public class JunctionIndex {
+    private final Junction[] junctions;
+    private final double[] xs;          // xs[i] = x-coordinate of junctions[i]
+    private final double[] ys;          // ys[i] = y-coordinate of junctions[i]
+
+    /**
+     * representation invariants:
+     * for every range lo..hi-1 of the tree at depth d with mid = (lo+hi)/2,
+     * split by the x-coordinate if d is even, and by the y-coordinate if d is odd:
+     * 1. all junctions in lo..mid-1 have a coordinate <= the coordinate of junctions[mid]
+     * 2. all junctions in mid+1..hi-1 have a coordinate >= the coordinate of junctions[mid]
+     */
+
+    public JunctionIndex(Collection<Junction> junctions) {
+        this.junctions = junctions.toArray(new Junction[0]);
+        this.build(0, this.junctions.length, 0);
+
+        this.xs = new double[this.junctions.length];
+        this.ys = new double[this.junctions.length];
+        for (int i = 0; i < this.junctions.length; i++) {
+            this.xs[i] = this.junctions[i].getLocationX();
+            this.ys[i] = this.junctions[i].getLocationY();
+        }
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        Arrays.sort(this.junctions, lo, hi, depth % 2 == 0
+                ? Comparator.comparingDouble(Junction::getLocationX)
+                : Comparator.comparingDouble(Junction::getLocationY));
+        int mid = (lo + hi) >>> 1;
+        this.build(lo, mid, depth + 1);
+        this.build(mid + 1, hi, depth + 1);
+    }
+
+    public int size() {
+        return this.junctions.length;
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @return  the junction nearest to the location (x, y), or null if the index is empty
+     */
+    public Junction nearest(double x, double y) {
+        List<Junction> nearest = this.nearest(x, y, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param k
+     * @return  the k junctions nearest to the location (x, y), in order of increasing distance
+     *          fewer than k if the index holds less junctions
+     */
+    public List<Junction> nearest(double x, double y, int k) {
+        if (k <= 0) return new ArrayList<>();
+        // max-heap of the k nearest candidates found so far, with the farthest candidate on top
+        PriorityQueue<Integer> candidates = new PriorityQueue<>(Math.min(k, this.junctions.length) + 1,
+                (i, j) -> Double.compare(this.squaredDistance(j, x, y), this.squaredDistance(i, x, y)));
+        this.nearest(0, this.junctions.length, 0, x, y, k, candidates);
+
+        Junction[] nearest = new Junction[candidates.size()];
+        for (int n = nearest.length - 1; n >= 0; n--) {
+            nearest[n] = this.junctions[candidates.poll()];
+        }
+        return new ArrayList<>(Arrays.asList(nearest));
+    }
+
+    private void nearest(int lo, int hi, int depth, double x, double y, int k, PriorityQueue<Integer> candidates) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        candidates.add(mid);
+        if (candidates.size() > k) candidates.poll();
+
+        // search the half that contains the location first, the other half only if it may hold nearer junctions
+        double difference = depth % 2 == 0 ? x - this.xs[mid] : y - this.ys[mid];
+        if (difference < 0) {
+            this.nearest(lo, mid, depth + 1, x, y, k, candidates);
+            if (this.mayContainNearer(difference, x, y, k, candidates)) {
+                this.nearest(mid + 1, hi, depth + 1, x, y, k, candidates);
+            }
+        } else {
+            this.nearest(mid + 1, hi, depth + 1, x, y, k, candidates);
+            if (this.mayContainNearer(difference, x, y, k, candidates)) {
+                this.nearest(lo, mid, depth + 1, x, y, k, candidates);
+            }
+        }
+    }
+
+    private boolean mayContainNearer(double difference, double x, double y, int k, PriorityQueue<Integer> candidates) {
+        return candidates.size() < k || difference * difference < this.squaredDistance(candidates.peek(), x, y);
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @param radius
+     * @return  all junctions within the radius around the location (x, y), in order of increasing distance
+     */
+    public List<Junction> withinRadius(double x, double y, double radius) {
+        List<Integer> found = new ArrayList<>();
+        this.withinRadius(0, this.junctions.length, 0, x, y, radius * radius, found);
+        found.sort(Comparator.comparingDouble(i -> this.squaredDistance(i, x, y)));
+
+        List<Junction> junctions = new ArrayList<>(found.size());
+        for (int i : found) junctions.add(this.junctions[i]);
+        return junctions;
+    }
+
+    private void withinRadius(int lo, int hi, int depth, double x, double y, double squaredRadius, List<Integer> found) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (this.squaredDistance(mid, x, y) <= squaredRadius) found.add(mid);
+
+        double difference = depth % 2 == 0 ? x - this.xs[mid] : y - this.ys[mid];
+        if (difference <= 0 || difference * difference <= squaredRadius) {
+            this.withinRadius(lo, mid, depth + 1, x, y, squaredRadius, found);
+        }
+        if (difference >= 0 || difference * difference <= squaredRadius) {
+            this.withinRadius(mid + 1, hi, depth + 1, x, y, squaredRadius, found);
+        }
+    }
+
+    private double squaredDistance(int i, double x, double y) {
+        double dX = this.xs[i] - x;
+        double dY = this.ys[i] - y;
+        return dX * dX + dY * dY;
+    }
+}
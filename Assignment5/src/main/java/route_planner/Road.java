@@ -4,6 +4,7 @@ public class Road {
     private String name;        // the name of the road segment
     private double length;      // the fysical length of the segment in km
     private int maxSpeed;       // the maximum driving speed on the segment in km/h
+    private RoadMap roadMap;    // the map that holds the segment, which is notified about changes
 
     public Road(String name) {
         this.name = name;
@@ -32,7 +33,7 @@ public class Road {
     }
 
     public void setLength(double length) {
-        this.length = length;
+        this.update(length, this.maxSpeed);
     }
 
     public int getMaxSpeed() {
@@ -40,7 +41,34 @@ public class Road {
     }
 
     public void setMaxSpeed(int maxSpeed) {
+        this.update(this.length, maxSpeed);
+    }
+
+    /**
+     * @return  the time in hours to drive the full length of the segment at its maximum speed
+     */
+    public double getTravelTime() {
+        return this.length / this.maxSpeed;
+    }
+
+    /**
+     * changes the length and maximum speed of the segment at once,
+     * and notifies the road map that holds the segment about the change
+     * @param length
+     * @param maxSpeed
+     */
+    public void update(double length, int maxSpeed) {
+        double oldLength = this.length;
+        int oldMaxSpeed = this.maxSpeed;
+        this.length = length;
         this.maxSpeed = maxSpeed;
+        if (this.roadMap != null && (oldLength != length || oldMaxSpeed != maxSpeed)) {
+            this.roadMap.roadChanged(this, oldLength, oldMaxSpeed);
+        }
+    }
+
+    void setRoadMap(RoadMap roadMap) {
+        this.roadMap = roadMap;
     }
 
     @Override
@@ -0,0 +1,58 @@
+package route_planner;
+
+/**
+ * registers a change of the length and/or the maximum speed of a road segment between two junctions
+ */
+public class RoadChange {
+    private final Junction from;        // the start junction of the directed road segment
+    private final Junction to;          // the end junction of the directed road segment
+    private final Road road;
+    private final double oldLength;
+    private final int oldMaxSpeed;
+    private final double newLength;
+    private final int newMaxSpeed;
+
+    public RoadChange(Junction from, Junction to, Road road, double oldLength, int oldMaxSpeed) {
+        this.from = from;
+        this.to = to;
+        this.road = road;
+        this.oldLength = oldLength;
+        this.oldMaxSpeed = oldMaxSpeed;
+        this.newLength = road.getLength();
+        this.newMaxSpeed = road.getMaxSpeed();
+    }
+
+    public Junction getFrom() {
+        return from;
+    }
+
+    public Junction getTo() {
+        return to;
+    }
+
+    public Road getRoad() {
+        return road;
+    }
+
+    public double getOldLength() {
+        return oldLength;
+    }
+
+    public int getOldMaxSpeed() {
+        return oldMaxSpeed;
+    }
+
+    public double getNewLength() {
+        return newLength;
+    }
+
+    public int getNewMaxSpeed() {
+        return newMaxSpeed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s-%s: length %.3f -> %.3f, maxSpeed %d -> %d",
+                road.getName(), from, to, oldLength, newLength, oldMaxSpeed, newMaxSpeed);
+    }
+}
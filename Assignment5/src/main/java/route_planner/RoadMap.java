@@ -1,15 +1,33 @@
 package route_planner;
 
+import graphs.CSRGraph;
 import graphs.DirectedGraph;
+import graphs.LandmarkHeuristic;
+import graphs.PathCache;
+import graphs.SearchWorkspace;
+import graphs.WeightProfile;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Locale;
-import java.util.Random;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public class RoadMap extends DirectedGraph<Junction, Road> {
+    public static final WeightProfile<Road> DISTANCE = WeightProfile.of("distance", Road::getLength);
+    public static final WeightProfile<Road> TRAVEL_TIME = WeightProfile.of("travelTime", Road::getTravelTime);
+
+    /**
+     * creates an empty road map, e.g. to be restored from a snapshot
+     */
+    public RoadMap() { }
 
     public RoadMap(String junctionsResource, String roadsResource) {
         System.out.printf("\nImporting junctions and roads from %s and %s...\n",
@@ -33,6 +51,33 @@ public class RoadMap extends DirectedGraph<Junction, Road> {
     }
 
     private static final String DELIMITER = ";";
+    // the number of road changes that are kept, after which the oldest changes are dropped
+    public static final int MAX_ROAD_CHANGES = 10000;
+
+    private double maxSpeedOnMap = 0.0;     // cached highest speed limit in the map, used by A* travel time estimates
+                                            // guarded by this, 0.0 if it has not been calculated
+
+    // the junctions at both ends of every road segment, to find the edges that are affected by a change of a road
+    private final Map<Road, List<Junction[]>> roadEnds = new IdentityHashMap<>();
+    private final Deque<RoadChange> roadChanges = new ArrayDeque<>();   // guarded by this, at most MAX_ROAD_CHANGES
+    // registries that are rarely changed, but iterated on every change of a road, possibly by other threads
+    private final List<ShortestPathTree> maintainedTrees = new CopyOnWriteArrayList<>();
+    private final List<PathCache<Junction, Road>> pathCaches = new CopyOnWriteArrayList<>();
+    private volatile JunctionIndex junctionIndex;       // built lazily, discarded when junctions are added or removed
+
+    // the weight profiles that are materialized into the profiled graph, by name
+    private final Map<String, WeightProfile<Road>> weightProfiles = new LinkedHashMap<>();
+    // frozen copy of the map with the weights of all profiles, rebuilt lazily after any change of the map
+    // the copy and the number of road changes at the time it was built are guarded by this
+    private CSRGraph<Junction, Road> profiledGraph;
+    private long profiledGeneration = -1;
+    private final AtomicLong roadGeneration = new AtomicLong();     // the number of changes of roads so far
+    private final Queue<SearchWorkspace> profiledWorkspaces = new ConcurrentLinkedQueue<>();
+
+    {
+        this.weightProfiles.put(DISTANCE.getName(), DISTANCE);
+        this.weightProfiles.put(TRAVEL_TIME.getName(), TRAVEL_TIME);
+    }
 
     /**
      * imports a list of junctions from a resource file in the project.
@@ -43,10 +88,24 @@ public class RoadMap extends DirectedGraph<Junction, Road> {
      */
     public int importJunctions(String resourceName) {
         if (resourceName == null) return 0;
-        int numLoaded = 0;
+        return this.importJunctions(new Scanner(
+                RoadMap.class.getClassLoader().getResourceAsStream(resourceName)));
+    }
+
+    /**
+     * imports a list of junctions from a file in the same format as the resource files
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public int importJunctions(Path file) throws IOException {
+        try (Scanner scanner = new Scanner(file, StandardCharsets.UTF_8)) {
+            return this.importJunctions(scanner);
+        }
+    }
 
-        Scanner scanner = new Scanner(
-                RoadMap.class.getClassLoader().getResourceAsStream(resourceName));
+    private int importJunctions(Scanner scanner) {
+        int numLoaded = 0;
 
         scanner.useDelimiter(DELIMITER);
         scanner.useLocale(Locale.ENGLISH);
@@ -84,10 +143,24 @@ public class RoadMap extends DirectedGraph<Junction, Road> {
      */
     public int importRoads(String resourceName) {
         if (resourceName == null) return 0;
-        int numLoaded = 0;
+        return this.importRoads(new Scanner(
+                RoadMap.class.getClassLoader().getResourceAsStream(resourceName)));
+    }
+
+    /**
+     * imports a list of road segments from a file in the same format as the resource files
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public int importRoads(Path file) throws IOException {
+        try (Scanner scanner = new Scanner(file, StandardCharsets.UTF_8)) {
+            return this.importRoads(scanner);
+        }
+    }
 
-        Scanner scanner = new Scanner(
-                RoadMap.class.getClassLoader().getResourceAsStream(resourceName));
+    private int importRoads(Scanner scanner) {
+        int numLoaded = 0;
 
         scanner.useDelimiter(DELIMITER);
         scanner.useLocale(Locale.ENGLISH);
@@ -132,6 +205,417 @@ public class RoadMap extends DirectedGraph<Junction, Road> {
         return numLoaded;
     }
 
+    @Override
+    public Junction addOrGetVertex(Junction newJunction) {
+        Junction junction = super.addOrGetVertex(newJunction);
+        if (junction == newJunction) this.junctionIndex = null;
+        return junction;
+    }
+
+    @Override
+    public void removeUnconnectedVertices() {
+        super.removeUnconnectedVertices();
+        this.junctionIndex = null;
+    }
+
+    /**
+     * provides the spatial index over the locations of all junctions in the map
+     * the index is rebuilt on first use after junctions have been added or removed
+     * @return
+     */
+    public JunctionIndex getJunctionIndex() {
+        JunctionIndex index = this.junctionIndex;
+        if (index == null) {
+            index = new JunctionIndex(this.getVertices());
+            this.junctionIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * snaps a location to the map
+     * @param x     RD x-coordinate in km
+     * @param y     RD y-coordinate in km
+     * @return  the junction nearest to the location, or null if the map has no junctions
+     */
+    public Junction nearestJunction(double x, double y) {
+        return this.getJunctionIndex().nearest(x, y);
+    }
+
+    /**
+     * @param x     RD x-coordinate in km
+     * @param y     RD y-coordinate in km
+     * @param k
+     * @return  the k junctions nearest to the location, in order of increasing distance
+     */
+    public List<Junction> nearestJunctions(double x, double y, int k) {
+        return this.getJunctionIndex().nearest(x, y, k);
+    }
+
+    /**
+     * @param x         RD x-coordinate in km
+     * @param y         RD y-coordinate in km
+     * @param radius    in km
+     * @return  all junctions within the radius around the location, in order of increasing distance
+     */
+    public List<Junction> junctionsWithinRadius(double x, double y, double radius) {
+        return this.getJunctionIndex().withinRadius(x, y, radius);
+    }
+
+    /**
+     * adds the road segment to the map, which will be notified of all later changes of the road
+     * @param fromJunction
+     * @param toJunction
+     * @param road
+     * @return  whether the road segment has been added successfully
+     */
+    @Override
+    public boolean addEdge(Junction fromJunction, Junction toJunction, Road road) {
+        if (!super.addEdge(fromJunction, toJunction, road)) return false;
+
+        this.roadEnds.computeIfAbsent(road, r -> new ArrayList<>(1)).add(new Junction[]{
+                this.getVertexById(fromJunction.getId()), this.getVertexById(toJunction.getId())});
+        road.setRoadMap(this);
+        // a faster road raises the cached maximum speed, which keeps the A* travel time estimates admissible
+        synchronized (this) {
+            if (this.maxSpeedOnMap > 0.0) this.maxSpeedOnMap = Math.max(this.maxSpeedOnMap, road.getMaxSpeed());
+        }
+        return true;
+    }
+
+    /**
+     * changes the length and maximum speed of the road segment from one junction to another,
+     * e.g. to register a traffic incident
+     * @param fromId
+     * @param toId
+     * @param length
+     * @param maxSpeed
+     * @return  whether a road segment from fromId to toId exists
+     */
+    public boolean updateRoad(String fromId, String toId, double length, int maxSpeed) {
+        Road road = this.getEdge(fromId, toId);
+        if (road == null) return false;
+        road.update(length, maxSpeed);
+        return true;
+    }
+
+    /**
+     * registers the change of a road segment in the map and repairs all maintained shortest path trees
+     * invoked by the road segment itself
+     * @param road
+     * @param oldLength
+     * @param oldMaxSpeed
+     */
+    void roadChanged(Road road, double oldLength, int oldMaxSpeed) {
+        // a higher speed limit may invalidate the cached maximum speed
+        synchronized (this) {
+            this.maxSpeedOnMap = 0.0;
+        }
+        // the materialized weights of the road are outdated, also in a profiled graph that is being built
+        this.roadGeneration.incrementAndGet();
+
+        // the change log and the maintained trees are updated by one change at a time
+        synchronized (this) {
+            for (Junction[] ends : this.roadEnds.getOrDefault(road, Collections.emptyList())) {
+                if (this.roadChanges.size() == MAX_ROAD_CHANGES) this.roadChanges.removeFirst();
+                this.roadChanges.addLast(new RoadChange(ends[0], ends[1], road, oldLength, oldMaxSpeed));
+                for (ShortestPathTree tree : this.maintainedTrees) {
+                    tree.edgeChanged(ends[0], ends[1]);
+                }
+            }
+        }
+
+        if (!this.pathCaches.isEmpty()) {
+            Road previous = new Road(road.getName(), oldLength, oldMaxSpeed);
+            for (PathCache<Junction, Road> cache : this.pathCaches) {
+                cache.edgeChanged(road, previous);
+            }
+        }
+    }
+
+    /**
+     * @return  a copy of the changes of road segments since the map has been imported or the changes were drained,
+     *          in chronological order, limited to the last MAX_ROAD_CHANGES changes
+     */
+    public synchronized List<RoadChange> getRoadChanges() {
+        return new ArrayList<>(this.roadChanges);
+    }
+
+    /**
+     * removes all registered changes of road segments, e.g. after they have been processed
+     * @return  the removed changes, in chronological order
+     */
+    public synchronized List<RoadChange> drainRoadChanges() {
+        List<RoadChange> changes = new ArrayList<>(this.roadChanges);
+        this.roadChanges.clear();
+        return changes;
+    }
+
+    /**
+     * calculates the shortest path tree from start, which will be repaired incrementally
+     * on every later change of a road segment, until it is released
+     * @param startId
+     * @param weightMapper
+     * @return  the maintained tree, or null if start cannot be matched with a junction in the map
+     */
+    public ShortestPathTree maintainShortestPathTree(String startId, Function<Road, Double> weightMapper) {
+        ShortestPathTree tree = this.shortestPathTree(startId, weightMapper);
+        if (tree != null) this.maintainedTrees.add(tree);
+        return tree;
+    }
+
+    /**
+     * stops the maintenance of the tree on changes of road segments
+     * @param tree
+     */
+    public void releaseShortestPathTree(ShortestPathTree tree) {
+        this.maintainedTrees.remove(tree);
+    }
+
+    /**
+     * creates a cache of shortest routes, which will be invalidated on every later change of a road segment,
+     * until it is released
+     * @param capacity  the maximum total number of junctions on all cached routes
+     * @return
+     */
+    public PathCache<Junction, Road> createPathCache(int capacity) {
+        PathCache<Junction, Road> cache = new PathCache<>(this, capacity);
+        this.pathCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * stops the invalidation of the cache on changes of road segments
+     * @param cache
+     */
+    public void releasePathCache(PathCache<Junction, Road> cache) {
+        this.pathCaches.remove(cache);
+    }
+
+    /**
+     * finds the route with the shortest total length from start to target by the A* algorithm,
+     * using the straight-line distance between junctions as estimate of the remaining length.
+     * (road lengths are never shorter than the straight-line distance between their junctions)
+     * @param startId
+     * @param targetId
+     * @return  the shortest path from start to target, or null if no path can be found
+     */
+    public DGPath aStarShortestPath(String startId, String targetId) {
+        return this.aStarShortestPath(startId, targetId,
+                DISTANCE,
+                Junction::getDistance
+        );
+    }
+
+    /**
+     * finds the route with the shortest expected travel time from start to target by the A* algorithm,
+     * using the straight-line distance between junctions at the highest speed limit on the map
+     * as estimate of the remaining travel time.
+     * @param startId
+     * @param targetId
+     * @return  the fastest path from start to target, or null if no path can be found
+     */
+    public DGPath aStarFastestRoute(String startId, String targetId) {
+        double maxSpeed = this.getMaxSpeedOnMap();
+        return this.aStarShortestPath(startId, targetId,
+                TRAVEL_TIME,
+                (j, target) -> j.getDistance(target) / maxSpeed
+        );
+    }
+
+    /**
+     * calculates the isochrone of the start junction: all junctions that can be reached within the travel time
+     * @param startId
+     * @param minutes   the maximum travel time
+     * @return  the shortest travel time in minutes towards every junction within reach, in order of travel time
+     *          returns null if start cannot be matched with a junction in the map
+     */
+    public Map<Junction, Double> reachableWithinMinutes(String startId, double minutes) {
+        Map<Junction, Double> reachable = this.reachableWithin(startId, minutes / 60.0, TRAVEL_TIME);
+        if (reachable != null) reachable.replaceAll((junction, hours) -> 60.0 * hours);
+        return reachable;
+    }
+
+    /**
+     * selects landmark junctions and precalculates the shortest path weights from and towards all of them,
+     * for goal-directed searches by altShortestPath
+     * the landmark distances are maintained on every later change of a road segment, until they are released
+     * @param numLandmarks
+     * @param weightMapper  provides a function, by which the weight of a road can be retrieved or calculated
+     * @return
+     */
+    public LandmarkHeuristic<Junction, Road> selectLandmarks(int numLandmarks, Function<Road, Double> weightMapper) {
+        LandmarkHeuristic<Junction, Road> landmarks = new LandmarkHeuristic<>(this, numLandmarks, weightMapper);
+        this.maintainedTrees.addAll(landmarks.getShortestPathTrees());
+        return landmarks;
+    }
+
+    /**
+     * stops the maintenance of the landmark distances on changes of road segments
+     * @param landmarks
+     */
+    public void releaseLandmarks(LandmarkHeuristic<Junction, Road> landmarks) {
+        this.maintainedTrees.removeAll(landmarks.getShortestPathTrees());
+    }
+
+    /**
+     * finds the shortest route from start to target by the A* algorithm,
+     * using the lower bounds of the landmarks as estimate of the remaining weight.
+     * Unlike the straight-line distance, these bounds remain tight for travel time and other weights
+     * that do not follow from the coordinates of the junctions.
+     * @param startId
+     * @param targetId
+     * @param landmarks     landmarks of this map, selected for the weight of the route to be found
+     * @return  the shortest path from start to target, or null if no path can be found
+     */
+    public DGPath altShortestPath(String startId, String targetId, LandmarkHeuristic<Junction, Road> landmarks) {
+        return this.aStarShortestPath(startId, targetId, landmarks.getWeightMapper(), landmarks);
+    }
+
+    /**
+     * calculates the weights of the shortest routes between many sources and many targets at once,
+     * by parallel one-to-many searches on a frozen copy of the map
+     * @param sources       ids of the junctions where the routes start
+     * @param targets       ids of the junctions where the routes end
+     * @param weightMapper  provides a function, by which the weight of a road can be retrieved or calculated
+     * @return  matrix[s][t] = weight of the shortest route from sources[s] to targets[t],
+     *          Double.POSITIVE_INFINITY if there is no such route
+     *          returns null if any of the ids cannot be matched with a junction in the map
+     */
+    public double[][] distanceMatrix(List<String> sources, List<String> targets, Function<Road, Double> weightMapper) {
+        CSRGraph<Junction, Road> frozen = this.freeze().addWeightProfile("matrix", weightMapper);
+
+        int[] sourceIndices = sources.stream().mapToInt(frozen::indexOf).toArray();
+        int[] targetIndices = targets.stream().mapToInt(frozen::indexOf).toArray();
+        if (IntStream.concat(IntStream.of(sourceIndices), IntStream.of(targetIndices)).anyMatch(i -> i < 0)) {
+            return null;
+        }
+
+        return frozen.distanceMatrix(sourceIndices, targetIndices, "matrix");
+    }
+
+    /**
+     * calculates the weights of the shortest routes between many sources and many targets at once,
+     * by parallel one-to-many searches on the precalculated weights of the profile
+     * @param sources       ids of the junctions where the routes start
+     * @param targets       ids of the junctions where the routes end
+     * @param profile       provides the weight of every road
+     * @return  matrix[s][t] = weight of the shortest route from sources[s] to targets[t],
+     *          Double.POSITIVE_INFINITY if there is no such route
+     *          returns null if any of the ids cannot be matched with a junction in the map
+     */
+    public double[][] distanceMatrix(List<String> sources, List<String> targets, WeightProfile<Road> profile) {
+        CSRGraph<Junction, Road> profiled = this.getProfiledGraph(profile);
+
+        int[] sourceIndices = sources.stream().mapToInt(profiled::indexOf).toArray();
+        int[] targetIndices = targets.stream().mapToInt(profiled::indexOf).toArray();
+        if (IntStream.concat(IntStream.of(sourceIndices), IntStream.of(targetIndices)).anyMatch(i -> i < 0)) {
+            return null;
+        }
+
+        return profiled.distanceMatrix(sourceIndices, targetIndices, profile.getName());
+    }
+
+    /**
+     * finds the shortest route from start to target by Dijkstra's algorithm on the precalculated weights of the profile,
+     * which are materialized into a frozen copy of the map and rebuilt automatically after any change of the map
+     * @param startId
+     * @param targetId
+     * @param profile   provides the weight of every road
+     * @return  the shortest path from start to target
+     *          returns null if either start or target cannot be matched with a junction in the map
+     *                          or no path can be found from start to target
+     */
+    @Override
+    public DGPath dijkstraShortestPath(String startId, String targetId, WeightProfile<Road> profile) {
+        CSRGraph<Junction, Road> profiled = this.getProfiledGraph(profile);
+        SearchWorkspace workspace = this.profiledWorkspaces.poll();
+        if (workspace == null || workspace.getCapacity() != profiled.getNumVertices()) {
+            workspace = profiled.newWorkspace();
+        }
+        try {
+            return profiled.dijkstraShortestPath(startId, targetId, profile.getName(), workspace);
+        } finally {
+            this.profiledWorkspaces.offer(workspace);
+        }
+    }
+
+    /**
+     * provides the frozen copy of the map with the materialized weights of all profiles that are in use,
+     * which is rebuilt if the map or any of its roads has been changed since, or if the profile is new
+     * the copy itself is never changed, such that searches in progress are not affected by a rebuild
+     * @param profile
+     * @return
+     */
+    private synchronized CSRGraph<Junction, Road> getProfiledGraph(WeightProfile<Road> profile) {
+        CSRGraph<Junction, Road> profiled = this.profiledGraph;
+        if (profiled != null && !profiled.isOutdated() && this.profiledGeneration == this.roadGeneration.get()
+                && this.weightProfiles.get(profile.getName()) == profile) {
+            return profiled;
+        }
+
+        // a road that changes during the build leaves the new copy outdated, to be rebuilt on its next use
+        long generation = this.roadGeneration.get();
+        this.weightProfiles.put(profile.getName(), profile);
+        profiled = this.freeze();
+        for (WeightProfile<Road> weightProfile : this.weightProfiles.values()) {
+            profiled.addWeightProfile(weightProfile);
+        }
+        this.profiledGraph = profiled;
+        this.profiledGeneration = generation;
+        return profiled;
+    }
+
+    /**
+     * calculates the highest speed limit of all road segments in the map
+     * the result is cached until the next change of a road segment, and raised by faster new road segments
+     * @return
+     */
+    public synchronized double getMaxSpeedOnMap() {
+        if (this.maxSpeedOnMap == 0.0) {
+            for (Junction junction : this.getVertices()) {
+                for (Road road : this.getEdges(junction)) {
+                    this.maxSpeedOnMap = Math.max(this.maxSpeedOnMap, road.getMaxSpeed());
+                }
+            }
+        }
+        return this.maxSpeedOnMap;
+    }
+
+    /**
+     * writes a binary snapshot of the map, including the lengths of all roads as calculated at import
+     * @param file
+     * @throws IOException
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        RoadMapSnapshot.write(this, file);
+    }
+
+    /**
+     * imports a road map from csv files on disk, e.g. as written by the RoadNetworkGenerator
+     * @param junctionsFile
+     * @param roadsFile
+     * @return
+     * @throws IOException
+     */
+    public static RoadMap importFiles(Path junctionsFile, Path roadsFile) throws IOException {
+        RoadMap roadMap = new RoadMap();
+        roadMap.importJunctions(junctionsFile);
+        roadMap.importRoads(roadsFile);
+        roadMap.removeUnconnectedVertices();
+        return roadMap;
+    }
+
+    /**
+     * restores a road map from a binary snapshot, written by writeSnapshot
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static RoadMap readSnapshot(Path file) throws IOException {
+        return RoadMapSnapshot.read(file);
+    }
+
     /**
      * produces an .svg file in the target classpath folder, which depicts the roadMap and the optional path
      * .svg files can be viewed with a regular browser
@@ -184,13 +668,12 @@ public class RoadMap extends DirectedGraph<Junction, Road> {
      * @param svgWriter
      */
     private void svgDrawRoads(PrintStream svgWriter, Junction from) {
-        for (Junction neighbour : this.getNeighbours(from)) {
-            Road road = this.getEdge(from, neighbour);
+        this.forEachOutgoing(from, (neighbour, road) -> {
             String colour = (road.getMaxSpeed() >= 100 ? "darkorange" :
                     road.getMaxSpeed() >= 80 ? "gold" : "lightskyblue");
             double width = 0.2 + road.getMaxSpeed() * 0.008;
             neighbour.svgDrawRoad(svgWriter, from, width, colour);
-        }
+        });
     }
 
     @Override
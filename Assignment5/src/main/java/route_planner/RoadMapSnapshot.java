@@ -0,0 +1,165 @@
+package route_planner;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary snapshot of a complete road map, including the lengths of the roads as they have been
+ * calculated at import, such that a map can be restored without parsing and with reproducible road lengths.
+ * The file layout (big-endian) is:
+ *      int     MAGIC, int VERSION
+ *      int     number of junctions, followed by per junction:  string name, double x, double y, int population
+ *      int     number of roads, followed by per road:          string name, double length, int maxSpeed
+ *      int     number of road segments, followed by per segment:  int from junction, int to junction, int road
+ * where strings are stored as an int byte count followed by UTF-8 bytes,
+ * and junctions and roads are referred to by their position in the file.
+ * Roads that are shared by multiple segments are stored only once, and remain shared when the map is restored.
+ */
+public class RoadMapSnapshot {
+    public static final int MAGIC = 0x52444d50;     // "RDMP"
+    public static final int VERSION = 1;
+    // the least number of bytes per junction, road and segment, used to validate the counts in a file
+    private static final int MIN_JUNCTION_BYTES = 4 + 8 + 8 + 4;
+    private static final int MIN_ROAD_BYTES = 4 + 8 + 4;
+    private static final int SEGMENT_BYTES = 4 + 4 + 4;
+
+    private RoadMapSnapshot() { }
+
+    /**
+     * writes a snapshot of the road map into the file
+     * @param roadMap
+     * @param file
+     * @throws IOException
+     */
+    public static void write(RoadMap roadMap, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            Map<Junction, Integer> junctionIndices = new HashMap<>();
+            out.writeInt(roadMap.getNumVertices());
+            for (Junction junction : roadMap.getVertices()) {
+                junctionIndices.put(junction, junctionIndices.size());
+                writeString(out, junction.getName());
+                out.writeDouble(junction.getLocationX());
+                out.writeDouble(junction.getLocationY());
+                out.writeInt(junction.getPopulation());
+            }
+
+            // collect the segments and their distinct road instances
+            Map<Road, Integer> roadIndices = new IdentityHashMap<>();
+            List<Road> roads = new ArrayList<>();
+            List<int[]> segments = new ArrayList<>(roadMap.getNumEdges());
+            for (Junction from : roadMap.getVertices()) {
+                roadMap.forEachOutgoing(from, (to, road) -> {
+                    Integer roadIndex = roadIndices.get(road);
+                    if (roadIndex == null) {
+                        roadIndex = roads.size();
+                        roadIndices.put(road, roadIndex);
+                        roads.add(road);
+                    }
+                    segments.add(new int[]{junctionIndices.get(from), junctionIndices.get(to), roadIndex});
+                });
+            }
+
+            out.writeInt(roads.size());
+            for (Road road : roads) {
+                writeString(out, road.getName());
+                out.writeDouble(road.getLength());
+                out.writeInt(road.getMaxSpeed());
+            }
+
+            out.writeInt(segments.size());
+            for (int[] segment : segments) {
+                out.writeInt(segment[0]);
+                out.writeInt(segment[1]);
+                out.writeInt(segment[2]);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * restores a road map from a snapshot file, which is mapped into memory instead of being read by a stream
+     * @param file
+     * @return  the restored road map
+     * @throws IOException  if the file cannot be read, or is not a snapshot of a supported version
+     */
+    public static RoadMap read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    private static RoadMap read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) throw new IOException("not a road map snapshot");
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("unsupported road map snapshot version " + version);
+
+            RoadMap roadMap = new RoadMap();
+            Junction[] junctions = new Junction[readCount(buffer, MIN_JUNCTION_BYTES, "junctions")];
+            for (int j = 0; j < junctions.length; j++) {
+                junctions[j] = new Junction(readString(buffer));
+                junctions[j].setLocationX(buffer.getDouble());
+                junctions[j].setLocationY(buffer.getDouble());
+                junctions[j].setPopulation(buffer.getInt());
+                roadMap.addOrGetVertex(junctions[j]);
+            }
+
+            Road[] roads = new Road[readCount(buffer, MIN_ROAD_BYTES, "roads")];
+            for (int r = 0; r < roads.length; r++) {
+                roads[r] = new Road(readString(buffer), buffer.getDouble(), buffer.getInt());
+            }
+
+            int numSegments = readCount(buffer, SEGMENT_BYTES, "segments");
+            for (int s = 0; s < numSegments; s++) {
+                roadMap.addEdge(junctions[buffer.getInt()], junctions[buffer.getInt()], roads[buffer.getInt()]);
+            }
+            return roadMap;
+        } catch (RuntimeException e) {
+            // a truncated file or invalid references
+            throw new IOException("corrupt road map snapshot", e);
+        }
+    }
+
+    /**
+     * reads the number of elements that follow in the buffer,
+     * and checks it against the remaining bytes before anything is allocated for the elements
+     * @param buffer
+     * @param minBytes  the least number of bytes of every element
+     * @param elements  the name of the elements
+     * @return  the number of elements
+     * @throws IOException  if the number is negative, or too large for the remaining bytes
+     */
+    private static int readCount(ByteBuffer buffer, int minBytes, String elements) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / minBytes) {
+            throw new IOException("corrupt road map snapshot: invalid number of " + elements + " " + count);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readCount(buffer, 1, "string bytes")];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,352 @@
+package route_planner;
+
+import graphs.UnionFind;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Generator of synthetic road networks of any size, to stress-test importers and searches reproducibly.
+ * The junctions are laid out in a grid over an area of RD-coordinates, each displaced randomly by less than
+ * a quarter of the grid spacing, such that the roads between neighbours in the grid never cross (planar).
+ * Every grid line is assigned a speed class by its position, e.g. a highway every 40 lines,
+ * and all roads along the lines of the faster classes are kept.
+ * Of the remaining local roads, a random spanning selection is kept such that all junctions remain connected,
+ * and every other local road only with the probability of the redundancy.
+ * The network can be written into csv files in the format of Junctions.csv and Roads.csv,
+ * or built into a RoadMap directly. Equal configurations and seeds produce equal networks.
+ */
+public class RoadNetworkGenerator {
+
+    /**
+     * a class of roads, which is assigned to every grid line at a multiple of its spacing
+     */
+    public static class SpeedClass {
+        private final String prefix;        // prefix of the names of the roads
+        private final int maxSpeed;         // in km/h
+        private final int spacing;          // the number of grid lines between roads of this class
+
+        public SpeedClass(String prefix, int maxSpeed, int spacing) {
+            if (spacing <= 0) throw new IllegalArgumentException("spacing must be positive: " + spacing);
+            this.prefix = prefix;
+            this.maxSpeed = maxSpeed;
+            this.spacing = spacing;
+        }
+
+        public String getPrefix() {
+            return this.prefix;
+        }
+
+        public int getMaxSpeed() {
+            return this.maxSpeed;
+        }
+
+        public int getSpacing() {
+            return this.spacing;
+        }
+
+        @Override
+        public String toString() {
+            return this.prefix + "/" + this.maxSpeed + "/" + this.spacing;
+        }
+    }
+
+    public static final List<SpeedClass> DEFAULT_SPEED_CLASSES = List.of(
+            new SpeedClass("A", 120, 40),
+            new SpeedClass("N", 100, 20),
+            new SpeedClass("S", 80, 5),
+            new SpeedClass("L", 50, 1));
+
+    private final int numJunctions;
+    private final long seed;
+    // the area of the network in RD-coordinates (km), by default the bounding box of the Netherlands
+    private double minX = 10.0, maxX = 280.0, minY = 300.0, maxY = 620.0;
+    private List<SpeedClass> speedClasses = DEFAULT_SPEED_CLASSES;     // in order of decreasing spacing
+    private double redundancy = 0.7;        // probability that a local road is kept beyond the spanning selection
+
+    /**
+     * @param numJunctions  the minimum number of junctions, which is rounded up to complete the grid
+     * @param seed          seed of all random choices
+     */
+    public RoadNetworkGenerator(int numJunctions, long seed) {
+        if (numJunctions < 4) throw new IllegalArgumentException("at least 4 junctions are required: " + numJunctions);
+        this.numJunctions = numJunctions;
+        this.seed = seed;
+    }
+
+    /**
+     * @param minX
+     * @param maxX
+     * @param minY
+     * @param maxY
+     * @return  this generator, such that settings can be configured in a chain
+     */
+    public RoadNetworkGenerator setArea(double minX, double maxX, double minY, double maxY) {
+        if (minX >= maxX || minY >= maxY) throw new IllegalArgumentException("empty area");
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        return this;
+    }
+
+    /**
+     * @param speedClasses  the classes of roads, one of which should have a spacing of 1 for the local roads
+     * @return  this generator, such that settings can be configured in a chain
+     */
+    public RoadNetworkGenerator setSpeedClasses(List<SpeedClass> speedClasses) {
+        List<SpeedClass> sorted = new ArrayList<>(speedClasses);
+        sorted.sort(Comparator.comparingInt(SpeedClass::getSpacing).reversed());
+        if (sorted.isEmpty() || sorted.get(sorted.size() - 1).getSpacing() != 1) {
+            throw new IllegalArgumentException("a speed class with spacing 1 is required for the local roads");
+        }
+        this.speedClasses = sorted;
+        return this;
+    }
+
+    /**
+     * @param redundancy    the probability that a local road is kept if it is not needed for connectivity,
+     *                      0.0 yields a tree of local roads between the faster roads, 1.0 a complete grid
+     * @return  this generator, such that settings can be configured in a chain
+     */
+    public RoadNetworkGenerator setRedundancy(double redundancy) {
+        if (redundancy < 0.0 || redundancy > 1.0) throw new IllegalArgumentException("redundancy out of [0, 1]");
+        this.redundancy = redundancy;
+        return this;
+    }
+
+    /**
+     * the layout of a generated network, in arrays by the index of the junctions: row * cols + col
+     */
+    private class Network {
+        private final int rows, cols;
+        private final double[] xs, ys;
+        private final int[] populations;
+        private final boolean[] horizontal;     // whether the road from (row, col) to (row, col+1) is kept
+        private final boolean[] vertical;       // whether the road from (row, col) to (row+1, col) is kept
+
+        private Network() {
+            Random randomizer = new Random(seed);
+            double width = maxX - minX, height = maxY - minY;
+            this.cols = Math.max(2, (int) Math.round(Math.sqrt(numJunctions * width / height)));
+            this.rows = Math.max(2, (numJunctions + this.cols - 1) / this.cols);
+            int size = this.rows * this.cols;
+            double spacingX = width / this.cols, spacingY = height / this.rows;
+
+            this.xs = new double[size];
+            this.ys = new double[size];
+            this.populations = new int[size];
+            for (int row = 0; row < this.rows; row++) {
+                for (int col = 0; col < this.cols; col++) {
+                    int j = row * this.cols + col;
+                    this.xs[j] = minX + (col + 0.5 + 0.45 * (randomizer.nextDouble() - 0.5)) * spacingX;
+                    this.ys[j] = minY + (row + 0.5 + 0.45 * (randomizer.nextDouble() - 0.5)) * spacingY;
+                    // few large towns and many villages
+                    this.populations[j] = 500 + (int) (100000 * Math.pow(randomizer.nextDouble(), 6));
+                }
+            }
+
+            // all roads of the faster classes are kept, and connect their junctions
+            this.horizontal = new boolean[size];
+            this.vertical = new boolean[size];
+            UnionFind components = new UnionFind(size);
+            int[] localRoads = new int[2 * size];       // horizontal roads as j, vertical roads as size + j
+            int numLocalRoads = 0;
+            for (int row = 0; row < this.rows; row++) {
+                for (int col = 0; col < this.cols; col++) {
+                    int j = row * this.cols + col;
+                    if (col + 1 < this.cols) {
+                        if (isLocal(row)) {
+                            localRoads[numLocalRoads++] = j;
+                        } else {
+                            this.horizontal[j] = true;
+                            components.union(j, j + 1);
+                        }
+                    }
+                    if (row + 1 < this.rows) {
+                        if (isLocal(col)) {
+                            localRoads[numLocalRoads++] = size + j;
+                        } else {
+                            this.vertical[j] = true;
+                            components.union(j, j + this.cols);
+                        }
+                    }
+                }
+            }
+
+            // keep a random spanning selection of the local roads, and some more
+            for (int r = numLocalRoads - 1; r > 0; r--) {
+                int other = randomizer.nextInt(r + 1);
+                int road = localRoads[r];
+                localRoads[r] = localRoads[other];
+                localRoads[other] = road;
+            }
+            for (int r = 0; r < numLocalRoads; r++) {
+                int road = localRoads[r];
+                boolean isVertical = road >= size;
+                int from = isVertical ? road - size : road;
+                int to = isVertical ? from + this.cols : from + 1;
+                boolean keep = components.union(from, to) || randomizer.nextDouble() < redundancy;
+                if (isVertical) this.vertical[from] = keep;
+                else this.horizontal[from] = keep;
+            }
+        }
+
+        private String junctionName(int j) {
+            return "J" + (j / this.cols) + "-" + (j % this.cols);
+        }
+
+        /**
+         * provides every maximal sequence of kept roads along a grid line as a single road
+         * @param consumer
+         * @throws IOException
+         */
+        private void forEachRoad(RoadConsumer consumer) throws IOException {
+            int[] junctions = new int[Math.max(this.rows, this.cols)];
+            for (int row = 0; row < this.rows; row++) {
+                SpeedClass speedClass = classOf(row);
+                int length = 0;
+                for (int col = 0; col < this.cols; col++) {
+                    int j = row * this.cols + col;
+                    if (length == 0) junctions[length++] = j;
+                    if (col + 1 < this.cols && this.horizontal[j]) {
+                        junctions[length++] = j + 1;
+                    } else {
+                        if (length > 1) consumer.accept(speedClass.getPrefix() + row, speedClass.getMaxSpeed(),
+                                junctions, length);
+                        length = 0;
+                    }
+                }
+            }
+            for (int col = 0; col < this.cols; col++) {
+                SpeedClass speedClass = classOf(col);
+                int length = 0;
+                for (int row = 0; row < this.rows; row++) {
+                    int j = row * this.cols + col;
+                    if (length == 0) junctions[length++] = j;
+                    if (row + 1 < this.rows && this.vertical[j]) {
+                        junctions[length++] = j + this.cols;
+                    } else {
+                        if (length > 1) consumer.accept(speedClass.getPrefix() + (this.rows + col),
+                                speedClass.getMaxSpeed(), junctions, length);
+                        length = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    private interface RoadConsumer {
+        void accept(String name, int maxSpeed, int[] junctions, int numJunctions) throws IOException;
+    }
+
+    private SpeedClass classOf(int line) {
+        for (SpeedClass speedClass : this.speedClasses) {
+            if (line % speedClass.getSpacing() == 0) return speedClass;
+        }
+        throw new IllegalStateException("no speed class with spacing 1");
+    }
+
+    private boolean isLocal(int line) {
+        return this.classOf(line) == this.speedClasses.get(this.speedClasses.size() - 1);
+    }
+
+    /**
+     * builds the network into a road map, with road segments in both directions
+     * and road lengths of 5 to 15% over the straight-line distance, like the import of csv files
+     * @return
+     */
+    public RoadMap buildRoadMap() {
+        Network network = new Network();
+        RoadMap roadMap = new RoadMap();
+        Junction[] junctions = new Junction[network.xs.length];
+        for (int j = 0; j < junctions.length; j++) {
+            junctions[j] = new Junction(network.junctionName(j));
+            junctions[j].setLocationX(network.xs[j]);
+            junctions[j].setLocationY(network.ys[j]);
+            junctions[j].setPopulation(network.populations[j]);
+            roadMap.addOrGetVertex(junctions[j]);
+        }
+
+        Random randomizer = new Random(this.seed + 1);
+        try {
+            network.forEachRoad((name, maxSpeed, sequence, length) -> {
+                for (int i = 1; i < length; i++) {
+                    Junction from = junctions[sequence[i - 1]];
+                    Junction to = junctions[sequence[i]];
+                    double distanceMultiplier = 1.05 + 0.1 * randomizer.nextDouble();
+                    Road road = new Road(name, distanceMultiplier * from.getDistance(to), maxSpeed);
+                    roadMap.addEdge(from, to, road);
+                    roadMap.addEdge(to, from, new Road(road));
+                }
+            });
+        } catch (IOException e) {
+            // the consumer does not do any I/O
+            throw new IllegalStateException(e);
+        }
+        return roadMap;
+    }
+
+    /**
+     * writes the network into csv files, which can be imported by RoadMap.importFiles
+     * @param junctionsFile
+     * @param roadsFile
+     * @return  the number of junctions that have been written
+     * @throws IOException
+     */
+    public int writeCsv(Path junctionsFile, Path roadsFile) throws IOException {
+        Network network = new Network();
+        try (BufferedWriter out = Files.newBufferedWriter(junctionsFile, StandardCharsets.UTF_8)) {
+            out.write("Code;Naam;X;Y;Provincie;Inwoners;Oppervlakte;Inw/km2\n");
+            for (int j = 0; j < network.xs.length; j++) {
+                out.write(String.format(Locale.ENGLISH, "%d;%s;%.3f;%.3f;SY;%d;0;0\n",
+                        j, network.junctionName(j), network.xs[j], network.ys[j], network.populations[j]));
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(roadsFile, StandardCharsets.UTF_8)) {
+            out.write("name;speed limit;junctions;;\n");
+            network.forEachRoad((name, maxSpeed, sequence, length) -> {
+                out.write(name);
+                out.write(';');
+                out.write(Integer.toString(maxSpeed));
+                for (int i = 0; i < length; i++) {
+                    out.write(';');
+                    out.write(network.junctionName(sequence[i]));
+                }
+                out.write(";;\n");
+            });
+        }
+        return network.xs.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH,
+                "RoadNetworkGenerator of %d junctions in [%.1f, %.1f] x [%.1f, %.1f] with %s, redundancy %.2f, seed %d",
+                this.numJunctions, this.minX, this.maxX, this.minY, this.maxY, this.speedClasses,
+                this.redundancy, this.seed);
+    }
+
+    /**
+     * writes a synthetic network into csv files
+     * @param args  number of junctions (1000000 by default), output folder (the working directory by default),
+     *              seed (20211220 by default)
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        int numJunctions = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Path folder = Paths.get(args.length > 1 ? args[1] : ".");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 20211220L;
+
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(numJunctions, seed);
+        long started = System.nanoTime();
+        int written = generator.writeCsv(folder.resolve("Junctions.csv"), folder.resolve("Roads.csv"));
+        System.out.printf("%d junctions have been written into %s in %.1f s.\n",
+                written, folder.toAbsolutePath(), (System.nanoTime() - started) / 1e9);
+    }
+}
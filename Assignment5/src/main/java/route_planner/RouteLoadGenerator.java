@@ -0,0 +1,186 @@
+package route_planner;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for the RouteService, which fires route queries between random junctions
+ * from a number of concurrent clients, and reports the throughput and latency percentiles.
+ */
+public class RouteLoadGenerator {
+    private final URI service;
+    private final List<String> junctionIds;
+    private final HttpClient client;
+
+    /**
+     * @param service       base address of the service, e.g. http://127.0.0.1:8080
+     * @param junctionIds   ids of the junctions to choose the start and target of every route from
+     */
+    public RouteLoadGenerator(URI service, Collection<String> junctionIds) {
+        this.service = service;
+        this.junctionIds = new ArrayList<>(junctionIds);
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    /**
+     * the outcome of a load test
+     */
+    public static class Report {
+        private final int numRequests;
+        private final int numErrors;
+        private final double seconds;
+        private final long[] latencies;     // sorted latencies of all requests in nanoseconds
+
+        private Report(int numRequests, int numErrors, double seconds, long[] latencies) {
+            this.numRequests = numRequests;
+            this.numErrors = numErrors;
+            this.seconds = seconds;
+            this.latencies = latencies;
+            Arrays.sort(this.latencies);
+        }
+
+        public int getNumRequests() {
+            return this.numRequests;
+        }
+
+        /**
+         * @return  the number of requests that failed, or did not find a route
+         */
+        public int getNumErrors() {
+            return this.numErrors;
+        }
+
+        /**
+         * @return  the number of requests per second
+         */
+        public double getThroughput() {
+            return this.numRequests / this.seconds;
+        }
+
+        /**
+         * @param percentage
+         * @return  the latency in milliseconds within which the percentage of all requests have been answered
+         */
+        public double getLatencyPercentile(double percentage) {
+            if (this.latencies.length == 0) return 0.0;
+            int rank = (int) Math.ceil(percentage / 100.0 * this.latencies.length) - 1;
+            return this.latencies[Math.max(0, Math.min(rank, this.latencies.length - 1))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH,
+                    "%d requests (%d errors) in %.2f s: %.0f requests/s, latency p50=%.2f ms p90=%.2f ms p99=%.2f ms",
+                    this.numRequests, this.numErrors, this.seconds, this.getThroughput(),
+                    this.getLatencyPercentile(50), this.getLatencyPercentile(90), this.getLatencyPercentile(99));
+        }
+    }
+
+    /**
+     * sends the requests from concurrent clients, each waiting for its response before sending the next request
+     * @param numRequests   the total number of requests
+     * @param numClients    the number of concurrent clients
+     * @param profile       the weight profile of all routes
+     * @param seed          seed of the random choice of junctions, for reproducible loads
+     * @return
+     * @throws InterruptedException
+     */
+    public Report run(int numRequests, int numClients, String profile, long seed) throws InterruptedException {
+        // prepare all requests in advance, such that the clients only measure the service
+        Random randomizer = new Random(seed);
+        List<HttpRequest> requests = new ArrayList<>(numRequests);
+        for (int r = 0; r < numRequests; r++) {
+            String from = this.junctionIds.get(randomizer.nextInt(this.junctionIds.size()));
+            String to = this.junctionIds.get(randomizer.nextInt(this.junctionIds.size()));
+            requests.add(HttpRequest.newBuilder(this.service.resolve(String.format("/route?from=%s&to=%s&profile=%s",
+                    encode(from), encode(to), encode(profile)))).GET().build());
+        }
+
+        long[] latencies = new long[numRequests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger numErrors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(numClients);
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int c = 0; c < numClients; c++) {
+            futures.add(clients.submit(() -> {
+                for (int r = nextRequest.getAndIncrement(); r < numRequests; r = nextRequest.getAndIncrement()) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response =
+                                this.client.send(requests.get(r), HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) numErrors.incrementAndGet();
+                    } catch (IOException e) {
+                        numErrors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[r] = System.nanoTime() - sent;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        clients.shutdown();
+        clients.awaitTermination(5, TimeUnit.SECONDS);
+
+        return new Report(numRequests, numErrors.get(), seconds, latencies);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * starts a route service for the complete map of the Netherlands and puts it under load,
+     * or loads a service that is already running elsewhere
+     * run with -Dsun.net.httpserver.nodelay=true to measure a local service at low latencies
+     * @param args  optional: base address of a running service, number of requests, number of clients
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        RoadMap.reSeedRandomizer(20211220L);
+        RoadMap roadMap = new RoadMap("Junctions.csv", "Roads.csv");
+        int numRequests = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int numClients = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+
+        RouteService service = null;
+        URI address;
+        if (args.length > 0) {
+            address = URI.create(args[0]);
+        } else {
+            service = new RouteService(roadMap);
+            service.start(0);
+            address = URI.create("http://127.0.0.1:" + service.getPort());
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (Junction junction : roadMap.getVertices()) ids.add(junction.getId());
+        RouteLoadGenerator generator = new RouteLoadGenerator(address, ids);
+
+        // warm up the service and the client before measuring
+        generator.run(numRequests / 10, numClients, RouteService.TIME, 1L);
+        System.out.println(generator.run(numRequests, numClients, RouteService.TIME, 20211220L));
+
+        if (service != null) service.stop();
+    }
+}
@@ -1,5 +1,17 @@
 package route_planner;
 
+import graphs.ContractionHierarchy;
+import graphs.LandmarkHeuristic;
+import graphs.SearchStatisticsAggregator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 public class RoutePlannerMain {
 
     public static void main(String[] args) {
@@ -23,16 +35,59 @@ public class RoutePlannerMain {
         // provide a map into the target classpath
         roadMap.svgDrawMap("RoadmapNL.svg", null);
 
+        // save the map as a binary snapshot into the target classpath, which restores much faster than csv files
+        try {
+            Path snapshot = Paths.get(new File(RoutePlannerMain.class.getResource("/").getPath()).getAbsolutePath(),
+                    "RoadmapNL.bin");
+            roadMap.writeSnapshot(snapshot);
+            long started = System.nanoTime();
+            RoadMap restored = RoadMap.readSnapshot(snapshot);
+            System.out.printf("%d junctions and %d one-way roads have been restored from %s in %.1f ms.\n",
+                    restored.getNumVertices(), restored.getNumEdges(), snapshot.getFileName(),
+                    (System.nanoTime() - started) / 1e6);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
         // Run various types of searches
         final String FROM_ID = "Amsterdam";
         //final String TO_ID = "Staphorst";
         final String TO_ID = "Meppel";
         doPathSearches(roadMap, FROM_ID, TO_ID);
 
+        // preprocess the map once into a contraction hierarchy for fast repeated fastest route queries
+        ContractionHierarchy<Junction, Road> hierarchy =
+                new ContractionHierarchy<>(roadMap, b -> b.getLength() / b.getMaxSpeed());
+        System.out.printf("Contraction hierarchy has been built with %d shortcuts.\n", hierarchy.getNumShortcuts());
+        RoadMap.DGPath chPath = hierarchy.shortestPath(FROM_ID, TO_ID);
+        System.out.println("Contraction-Hierarchy-Fastest-Route: " + chPath);
+        roadMap.svgDrawMap(String.format("CHFR-%s-%s.svg", FROM_ID, TO_ID), chPath);
+
+        // preprocess landmarks for goal-directed fastest route queries, which remain valid on road changes
+        LandmarkHeuristic<Junction, Road> landmarks =
+                roadMap.selectLandmarks(8, b -> b.getLength() / b.getMaxSpeed());
+        System.out.println("Landmarks have been selected: " + landmarks);
+        RoadMap.DGPath altPath = roadMap.altShortestPath(FROM_ID, TO_ID, landmarks);
+        System.out.println("ALT-Fastest-Route: " + altPath);
+        roadMap.svgDrawMap(String.format("ALTFR-%s-%s.svg", FROM_ID, TO_ID), altPath);
+
+        // offer alternative routes to the driver
+        List<RoadMap.DGPath> alternatives =
+                roadMap.kShortestPaths(FROM_ID, TO_ID, 3, b -> b.getLength() / b.getMaxSpeed());
+        for (int i = 0; i < alternatives.size(); i++) {
+            System.out.printf("Alternative-Fastest-Route-%d: %s\n", i + 1, alternatives.get(i));
+        }
+
+        // maintain the fastest routes from Amsterdam to all junctions while the traffic situation changes
+        RoadMap.ShortestPathTree fastestRoutes =
+                roadMap.maintainShortestPathTree(FROM_ID, b -> b.getLength() / b.getMaxSpeed());
+
         // now we have an accident between Diemen and Weesp...
         // TODO change the roadMap such that max average speed from Diemen to Weesp is only 5 km/h
 
         roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(5);
+        System.out.println("Road changes: " + roadMap.getRoadChanges());
+        System.out.println("Maintained-tree-accident-Weesp: " + fastestRoutes.getPath(TO_ID));
 
 
         // find the fastest route avoiding the accident
@@ -44,6 +99,30 @@ public class RoutePlannerMain {
                 );
         System.out.println("Dijkstra-accident-Weesp: " + path);
         roadMap.svgDrawMap(String.format("DSPACC-%s-%s.svg", FROM_ID, TO_ID), path);
+
+        compareSearches(roadMap, 200);
+    }
+
+    /**
+     * compares the work and latency of the fastest route searches on random routes in the map
+     * @param roadMap
+     * @param numRoutes
+     */
+    private static void compareSearches(RoadMap roadMap, int numRoutes) {
+        List<Junction> junctions = new ArrayList<>(roadMap.getVertices());
+        Random randomizer = new Random(20211220L);
+        SearchStatisticsAggregator.getGlobal().reset();
+        roadMap.setCollectingStatistics(true);
+        for (int r = 0; r < numRoutes; r++) {
+            String fromId = junctions.get(randomizer.nextInt(junctions.size())).getId();
+            String toId = junctions.get(randomizer.nextInt(junctions.size())).getId();
+            roadMap.dijkstraShortestPath(fromId, toId, b -> b.getLength() / b.getMaxSpeed());
+            roadMap.bidirectionalDijkstraShortestPath(fromId, toId, b -> b.getLength() / b.getMaxSpeed());
+            roadMap.aStarFastestRoute(fromId, toId);
+        }
+        roadMap.setCollectingStatistics(false);
+        System.out.printf("\nSearch statistics of %d random fastest routes:\n%s",
+                numRoutes, SearchStatisticsAggregator.getGlobal());
     }
 
     private static void doPathSearches(RoadMap roadMap, String fromId, String toId) {
@@ -88,6 +167,21 @@ public class RoutePlannerMain {
         System.out.println("Dijkstra-Fastest-Route: " + path);
         roadMap.svgDrawMap(String.format("DFR-%s-%s.svg", fromId, toId), path);
 
+        // find the fastest route by dijkstra searches from both ends that meet halfway
+        path = roadMap.bidirectionalDijkstraShortestPath(fromId, toId,
+                b -> b.getLength() / b.getMaxSpeed()
+        );
+        System.out.println("Bidirectional-Dijkstra-Fastest-Route: " + path);
+        roadMap.svgDrawMap(String.format("BDFR-%s-%s.svg", fromId, toId), path);
+
+        // find the same routes by A* search, directed by the straight-line distance towards the target
+        path = roadMap.aStarShortestPath(fromId, toId);
+        System.out.println("A*-Shortest-Path: " + path);
+        roadMap.svgDrawMap(String.format("ASP-%s-%s.svg", fromId, toId), path);
+        path = roadMap.aStarFastestRoute(fromId, toId);
+        System.out.println("A*-Fastest-Route: " + path);
+        roadMap.svgDrawMap(String.format("AFR-%s-%s.svg", fromId, toId), path);
+
         System.out.println();
     }
 }
@@ -0,0 +1,253 @@
+package route_planner;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import graphs.CSRGraph;
+import graphs.SearchWorkspace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local HTTP/JSON service for route queries, based on the HTTP server of the JDK.
+ * All queries are answered from a frozen snapshot of the road map, which is read-only and can be searched
+ * by many requests at the same time. Later changes of the road map are not reflected by the service.
+ * Requests are handled on virtual threads if the runtime provides them, and otherwise by a fixed thread pool.
+ * Start the JVM with -Dsun.net.httpserver.nodelay=true for low latencies: without TCP_NODELAY,
+ * the response headers and body of every request wait for a delayed acknowledgement.
+ * The service does not set this flag itself, because it applies to every HttpServer of the JVM.
+ *
+ * GET /route?from={id}&to={id}&profile=travelTime|distance     (time is accepted as alias of travelTime)
+ *      {"from":..., "to":..., "profile":..., "weight":..., "junctions":[...], "visited":...}
+ * GET /nearest?x={rd-x}&y={rd-y}&k={count}
+ *      {"junctions":[{"name":..., "x":..., "y":...}, ...]}
+ */
+public class RouteService {
+    // the names of the weight profiles of the road map, as used in route queries
+    public static final String DISTANCE = RoadMap.DISTANCE.getName();
+    public static final String TIME = RoadMap.TRAVEL_TIME.getName();
+    private static final String TIME_ALIAS = "time";
+
+    private final CSRGraph<Junction, Road> snapshot;
+    private final JunctionIndex junctionIndex;
+    // workspaces are pooled instead of bound to threads, because virtual threads only live for a single request
+    private final Queue<SearchWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public RouteService(RoadMap roadMap) {
+        this.snapshot = roadMap.freeze()
+                .addWeightProfile(RoadMap.DISTANCE)
+                .addWeightProfile(RoadMap.TRAVEL_TIME);
+        this.junctionIndex = new JunctionIndex(roadMap.getVertices());
+    }
+
+    /**
+     * starts listening for requests on the loopback address
+     * @param port  the port to listen to, or 0 for any free port
+     * @throws IOException
+     */
+    public void start(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/route", exchange -> this.handle(exchange, this::route));
+        this.server.createContext("/nearest", exchange -> this.handle(exchange, this::nearest));
+        this.executor = newRequestExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    /**
+     * stops the service, after completion of the requests that are being handled
+     */
+    public void stop() {
+        this.server.stop(0);
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return  the port the service is listening to
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * creates an executor that runs every request on a new virtual thread,
+     * falling back to a fixed thread pool on runtimes without virtual threads
+     * (the project is compiled for Java 11, so the factory can only be found at runtime)
+     * @return
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    // the response of a request, or an error status
+    private static class Response {
+        private final int status;
+        private final String json;
+
+        private Response(int status, String json) {
+            this.status = status;
+            this.json = json;
+        }
+
+        private static Response error(int status, String message) {
+            return new Response(status, "{\"error\":" + quote(message) + "}");
+        }
+    }
+
+    private interface Handler {
+        Response handle(Map<String, String> parameters);
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        Response response = null;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                response = Response.error(405, "method not allowed");
+            } else {
+                response = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            response = Response.error(500, "internal error " + e.getClass().getSimpleName());
+        } finally {
+            // a request that fails with an Error must still be answered, or its client waits until it times out,
+            // after which the Error is propagated to the server
+            send(exchange, response != null ? response : Response.error(500, "internal error"));
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Response route(Map<String, String> parameters) {
+        String from = required(parameters, "from");
+        String to = required(parameters, "to");
+        String profile = parameters.getOrDefault("profile", TIME);
+        if (TIME_ALIAS.equals(profile)) profile = TIME;
+        if (!this.snapshot.hasWeightProfile(profile)) {
+            throw new IllegalArgumentException("unknown profile " + profile);
+        }
+        if (this.snapshot.indexOf(from) < 0) return Response.error(404, "unknown junction " + from);
+        if (this.snapshot.indexOf(to) < 0) return Response.error(404, "unknown junction " + to);
+
+        SearchWorkspace workspace = this.workspaces.poll();
+        if (workspace == null) workspace = this.snapshot.newWorkspace();
+        RoadMap.DGPath path;
+        try {
+            path = this.snapshot.dijkstraShortestPath(from, to, profile, workspace);
+        } finally {
+            this.workspaces.offer(workspace);
+        }
+        if (path == null) return Response.error(404, "no route from " + from + " to " + to);
+
+        StringJoiner junctions = new StringJoiner(",", "[", "]");
+        for (Junction junction : path.getVertices()) junctions.add(quote(junction.getId()));
+        return new Response(200, String.format(Locale.ENGLISH,
+                "{\"from\":%s,\"to\":%s,\"profile\":%s,\"weight\":%f,\"junctions\":%s,\"visited\":%d}",
+                quote(from), quote(to), quote(profile), path.getTotalWeight(), junctions, path.getVisited().size()));
+    }
+
+    private Response nearest(Map<String, String> parameters) {
+        double x = parseDouble(parameters, "x");
+        double y = parseDouble(parameters, "y");
+        int k = parameters.containsKey("k") ? parseCount(parameters, "k") : 1;
+
+        StringJoiner junctions = new StringJoiner(",", "[", "]");
+        for (Junction junction : this.junctionIndex.nearest(x, y, Math.min(k, this.junctionIndex.size()))) {
+            junctions.add(String.format(Locale.ENGLISH, "{\"name\":%s,\"x\":%.3f,\"y\":%.3f}",
+                    quote(junction.getName()), junction.getLocationX(), junction.getLocationY()));
+        }
+        return new Response(200, "{\"junctions\":" + junctions + "}");
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) return parameters;
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) continue;
+            parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("missing parameter " + name);
+        return value;
+    }
+
+    private static double parseDouble(Map<String, String> parameters, String name) {
+        try {
+            return Double.parseDouble(required(parameters, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("parameter " + name + " is not a number");
+        }
+    }
+
+    private static int parseCount(Map<String, String> parameters, String name) {
+        int count;
+        try {
+            count = Integer.parseInt(required(parameters, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("parameter " + name + " is not an integer");
+        }
+        if (count <= 0) throw new IllegalArgumentException("parameter " + name + " is not positive");
+        return count;
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') quoted.append('\\').append(c);
+            else if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+            else quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * serves the complete map of the Netherlands
+     * run with -Dsun.net.httpserver.nodelay=true for low latencies
+     * @param args  optional port number, 8080 by default
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        RoadMap.reSeedRandomizer(20211220L);
+        RoadMap roadMap = new RoadMap("Junctions.csv", "Roads.csv");
+        RouteService service = new RouteService(roadMap);
+        service.start(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+        System.out.printf("Route service is listening on http://127.0.0.1:%d/route?from=Amsterdam&to=Meppel\n",
+                service.getPort());
+    }
+}
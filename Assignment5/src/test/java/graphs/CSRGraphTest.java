@@ -0,0 +1,164 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSRGraphTest {
+
+    DirectedGraph<Country, Integer> europe = new DirectedGraph<>();
+    CSRGraph<Country, Integer> frozen;
+
+    @BeforeEach
+    void setUp() {
+        europe.addOrGetVertex(new Country("NL"));
+        europe.addOrGetVertex(new Country("BE"));
+        europe.addOrGetVertex(new Country("DE"));
+        europe.addOrGetVertex(new Country("LUX"));
+        europe.addOrGetVertex(new Country("FR"));
+        europe.addOrGetVertex(new Country("UK"));
+        europe.addOrGetVertex(new Country("RO"));
+        europe.addOrGetVertex(new Country("HU"));
+        europe.addConnection("BE", "NL", 100);
+        europe.addConnection("NL", "DE", 200);
+        europe.addConnection("BE", "DE", 30);
+        europe.addConnection("LUX", "BE", 60);
+        europe.addConnection("LUX", "DE", 50);
+        europe.addConnection("FR", "LUX", 30);
+        europe.addConnection("FR", "BE", 110);
+        europe.addConnection("FR", "DE", 50);
+        europe.addConnection("UK", "BE", 70);
+        europe.addConnection("UK", "FR", 150);
+        europe.addConnection("UK", "NL", 250);
+        europe.addConnection("RO", "HU", 250);
+
+        frozen = europe.freeze()
+                .addWeightProfile("border", b -> (double)b)
+                .addWeightProfile("hops", b -> 1.0);
+    }
+
+    @Test
+    void checkStructure() {
+        assertEquals(europe.getNumVertices(), frozen.getNumVertices());
+        assertEquals(europe.getNumEdges(), frozen.getNumEdges());
+        assertEquals(-1, frozen.indexOf("XX"));
+        int nl = frozen.indexOf("NL");
+        assertSame(europe.getVertexById("NL"), frozen.getVertex(nl));
+        assertEquals(europe.getNeighbours("NL").size(), frozen.endEdge(nl) - frozen.firstEdge(nl));
+        for (int e = frozen.firstEdge(nl); e < frozen.endEdge(nl); e++) {
+            assertSame(europe.getEdge(frozen.getVertex(nl), frozen.getVertex(frozen.getTarget(e))), frozen.getEdge(e));
+        }
+        assertThrows(IllegalArgumentException.class, () -> frozen.getWeights("unknown"));
+    }
+
+    @Test
+    void checkSearchesMatchSourceGraph() {
+        for (String from : new String[]{"UK", "NL", "HU"}) {
+            for (String to : new String[]{"LUX", "NL", "RO"}) {
+                assertSamePath(europe.depthFirstSearch(from, to), frozen.depthFirstSearch(from, to));
+                assertSamePath(europe.breadthFirstSearch(from, to), frozen.breadthFirstSearch(from, to));
+                assertSamePath(europe.dijkstraShortestPath(from, to, b -> (double)b),
+                        frozen.dijkstraShortestPath(from, to, "border"));
+                assertSamePath(europe.dijkstraShortestPath(from, to, b -> 1.0),
+                        frozen.dijkstraShortestPath(from, to, "hops"));
+            }
+        }
+        assertNull(frozen.dijkstraShortestPath("UK", "XX", "border"));
+    }
+
+    @Test
+    void checkSearchesReuseWorkspace() {
+        SearchWorkspace workspace = frozen.newWorkspace();
+        for (int round = 0; round < 3; round++) {
+            for (String from : new String[]{"UK", "NL", "HU"}) {
+                for (String to : new String[]{"LUX", "NL", "RO"}) {
+                    assertSamePath(europe.depthFirstSearch(from, to), frozen.depthFirstSearch(from, to, workspace));
+                    assertSamePath(europe.breadthFirstSearch(from, to), frozen.breadthFirstSearch(from, to, workspace));
+                    assertSamePath(europe.dijkstraShortestPath(from, to, b -> (double)b),
+                            frozen.dijkstraShortestPath(from, to, "border", workspace));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> frozen.breadthFirstSearch("UK", "LUX", new SearchWorkspace(2)));
+    }
+
+    @Test
+    void checkDistanceMatrix() {
+        int[] sources = {frozen.indexOf("UK"), frozen.indexOf("RO"), frozen.indexOf("NL")};
+        int[] targets = {frozen.indexOf("LUX"), frozen.indexOf("HU"), frozen.indexOf("LUX")};
+        double[][] matrix = frozen.distanceMatrix(sources, targets, "border");
+        assertArrayEquals(new double[]{130.0, Double.POSITIVE_INFINITY, 130.0}, matrix[0], 0.0001);
+        assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, 250.0, Double.POSITIVE_INFINITY}, matrix[1], 0.0001);
+        assertArrayEquals(new double[]{160.0, Double.POSITIVE_INFINITY, 160.0}, matrix[2], 0.0001);
+    }
+
+    @Test
+    void checkParallelBreadthFirstSearch() {
+        for (String from : new String[]{"UK", "NL", "HU"}) {
+            for (String to : new String[]{"LUX", "NL", "RO"}) {
+                assertSamePath(europe.breadthFirstSearch(from, to), frozen.parallelBreadthFirstSearch(from, to));
+            }
+        }
+        assertNull(frozen.parallelBreadthFirstSearch("UK", "XX"));
+        assertNull(frozen.parallelBreadthFirstSearch("UK", "RO"));
+
+        // a random graph with frontiers that span many chunks
+        DirectedGraph<Country, Integer> random = new DirectedGraph<>();
+        Random randomizer = new Random(20211220L);
+        for (int v = 0; v < 20000; v++) random.addOrGetVertex(new Country("C" + v));
+        for (int v = 0; v < 20000; v++) {
+            for (int e = 0; e < 3; e++) random.addEdge("C" + v, "C" + randomizer.nextInt(20000), 1);
+        }
+        CSRGraph<Country, Integer> randomFrozen = random.freeze();
+        int[] hops = randomFrozen.hopCounts(randomFrozen.indexOf("C0"));
+        for (int t = 1; t < 20000; t += 997) {
+            DirectedGraph<Country, Integer>.DGPath expected = random.breadthFirstSearch("C0", "C" + t);
+            assertSamePath(expected, randomFrozen.parallelBreadthFirstSearch("C0", "C" + t));
+            assertEquals(expected == null ? -1 : expected.getVertices().size() - 1,
+                    hops[randomFrozen.indexOf("C" + t)]);
+        }
+        assertEquals(0, hops[randomFrozen.indexOf("C0")]);
+    }
+
+    @Test
+    void checkParallelBreadthFirstSearchStatistics() {
+        assertNull(frozen.parallelBreadthFirstSearch("UK", "DE").getStatistics());
+
+        europe.setCollectingStatistics(true);
+        DirectedGraph<Country, Integer>.DGPath path = frozen.parallelBreadthFirstSearch("UK", "DE");
+        SearchStatistics statistics = path.getStatistics();
+        assertEquals("parallelBreadthFirstSearch", statistics.getAlgorithm());
+        // the levels of UK and of its neighbours BE, FR and NL are expanded completely
+        assertEquals(4, statistics.getSettled());
+        assertEquals(statistics.getSettled(), statistics.getPops());
+        assertEquals(europe.getNeighbours("UK").size() + europe.getNeighbours("BE").size()
+                + europe.getNeighbours("FR").size() + europe.getNeighbours("NL").size(), statistics.getRelaxations());
+        assertEquals(3, statistics.getPeakFrontier());
+
+        // a target in another component is rejected without a search, but the search is still recorded
+        long numSearches = SearchStatisticsAggregator.getGlobal().getCount("parallelBreadthFirstSearch");
+        assertNull(frozen.parallelBreadthFirstSearch("UK", "RO"));
+        assertEquals(numSearches + 1, SearchStatisticsAggregator.getGlobal().getCount("parallelBreadthFirstSearch"));
+        europe.setCollectingStatistics(false);
+
+        assertThrows(IllegalArgumentException.class, () -> frozen.hopCounts(-1));
+        assertThrows(IllegalArgumentException.class, () -> frozen.hopCounts(frozen.getNumVertices()));
+    }
+
+    private void assertSamePath(DirectedGraph<Country, Integer>.DGPath expected,
+                                DirectedGraph<Country, Integer>.DGPath actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(new ArrayList<>(expected.getVertices()), new ArrayList<>(actual.getVertices()));
+        assertEquals(expected.getTotalWeight(), actual.getTotalWeight(), 0.0001);
+        assertEquals(expected.getVisited(), actual.getVisited());
+    }
+}
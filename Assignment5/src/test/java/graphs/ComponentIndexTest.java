@@ -0,0 +1,81 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentIndexTest {
+
+    DirectedGraph<Country, Integer> graph = new DirectedGraph<>();
+
+    @BeforeEach
+    void setUp() {
+        // a cycle A-B-C, with a one-way edge towards the cycle D-E, and a separate pair F-G
+        for (String id : new String[]{"A", "B", "C", "D", "E", "F", "G", "H"}) {
+            graph.addOrGetVertex(new Country(id));
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 1);
+        graph.addEdge("C", "A", 1);
+        graph.addEdge("C", "D", 1);
+        graph.addConnection("D", "E", 1);
+        graph.addConnection("F", "G", 1);
+    }
+
+    @Test
+    void checkComponents() {
+        ComponentIndex<Country, Integer> index = graph.getComponentIndex();
+        assertEquals(4, index.getNumStrongComponents());
+        assertEquals(3, index.getNumWeakComponents());
+        int[] strongSizes = index.getStrongComponentSizes();
+        Arrays.sort(strongSizes);
+        assertArrayEquals(new int[]{1, 2, 2, 3}, strongSizes);
+        assertEquals(8, Arrays.stream(index.getWeakComponentSizes()).sum());
+
+        Country a = graph.getVertexById("A"), c = graph.getVertexById("C"), d = graph.getVertexById("D");
+        assertTrue(index.isStronglyConnected(a, c));
+        assertFalse(index.isStronglyConnected(c, d));
+        assertTrue(index.isWeaklyConnected(a, d));
+        assertFalse(index.isWeaklyConnected(a, graph.getVertexById("F")));
+        assertFalse(index.isWeaklyConnected(a, graph.getVertexById("H")));
+        assertEquals(-1, index.getStrongComponent(new Country("X")));
+
+        // the components of the cycle can be reached from the cycle, so they are numbered lower
+        assertTrue(index.getStrongComponent(a) > index.getStrongComponent(d));
+    }
+
+    @Test
+    void checkRebuildAfterChanges() {
+        ComponentIndex<Country, Integer> index = graph.getComponentIndex();
+        assertSame(index, graph.getComponentIndex());
+        assertNull(graph.dijkstraShortestPath("A", "G", b -> 1.0));
+        assertFalse(graph.isReachable("A", "G"));
+
+        assertFalse(index.isOutdated());
+        graph.addEdge("E", "F", 1);
+        assertTrue(index.isOutdated());
+        assertNotSame(index, graph.getComponentIndex());
+        assertEquals(2, graph.getComponentIndex().getNumWeakComponents());
+        assertEquals(6, graph.dijkstraShortestPath("A", "G", b -> 1.0).getTotalWeight(), 0.0001);
+        assertTrue(graph.isReachable("A", "G"));
+        assertFalse(graph.isReachable("G", "A"));
+
+        index = graph.getComponentIndex();
+        graph.removeUnconnectedVertices();
+        assertNotSame(index, graph.getComponentIndex());
+        assertEquals(1, graph.getComponentIndex().getNumWeakComponents());
+    }
+
+    @Test
+    void checkDeepGraph() {
+        // a long cycle would overflow the call stack of a recursive implementation
+        DirectedGraph<Country, Integer> cycle = new DirectedGraph<>();
+        for (int v = 0; v < 100000; v++) {
+            cycle.addEdge(new Country("C" + v), new Country("C" + ((v + 1) % 100000)), 1);
+        }
+        assertEquals(1, cycle.getComponentIndex().getNumStrongComponents());
+    }
+}
@@ -0,0 +1,84 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    DirectedGraph<Country, Integer> europe = new DirectedGraph<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String id : new String[]{"NL", "BE", "DE", "LUX", "FR", "UK", "RO", "HU"}) {
+            europe.addOrGetVertex(new Country(id));
+        }
+        europe.addConnection("BE", "NL", 100);
+        europe.addConnection("NL", "DE", 200);
+        europe.addConnection("BE", "DE", 30);
+        europe.addConnection("LUX", "BE", 60);
+        europe.addConnection("LUX", "DE", 50);
+        europe.addConnection("FR", "LUX", 30);
+        europe.addConnection("FR", "BE", 110);
+        europe.addConnection("FR", "DE", 50);
+        europe.addConnection("UK", "BE", 70);
+        europe.addConnection("UK", "FR", 150);
+        europe.addConnection("UK", "NL", 250);
+        europe.addConnection("RO", "HU", 250);
+        // a one-way connection
+        europe.addEdge("NL", "LUX", 40);
+    }
+
+    @Test
+    void checkShortcutCount() {
+        // B is contracted before A and C, which connect many other vertices,
+        // and the shortcut A->C via B replaces the heavier direct edge, which adds no arc
+        DirectedGraph<Country, Integer> triangle = new DirectedGraph<>();
+        triangle.addEdge(new Country("A"), new Country("B"), 1);
+        triangle.addEdge(new Country("B"), new Country("C"), 1);
+        triangle.addEdge(new Country("A"), new Country("C"), 10);
+        for (int i = 0; i < 3; i++) {
+            triangle.addEdge(new Country("X" + i), new Country("A"), 1);
+            triangle.addEdge(new Country("C"), new Country("Y" + i), 1);
+        }
+        ContractionHierarchy<Country, Integer> hierarchy = new ContractionHierarchy<>(triangle, b -> (double)b);
+        assertEquals(0, hierarchy.getNumShortcuts());
+        assertEquals(2.0, hierarchy.shortestPath("A", "C").getTotalWeight(), 0.0001);
+        assertEquals(3, hierarchy.shortestPath("A", "C").getVertices().size());
+    }
+
+    @Test
+    void checkQueriesMatchDijkstra() {
+        ContractionHierarchy<Country, Integer> hierarchy = new ContractionHierarchy<>(europe, b -> (double)b);
+
+        for (Country from : europe.getVertices()) {
+            for (Country to : europe.getVertices()) {
+                DirectedGraph<Country, Integer>.DGPath expected =
+                        europe.dijkstraShortestPath(from.getId(), to.getId(), b -> (double)b);
+                DirectedGraph<Country, Integer>.DGPath path = hierarchy.shortestPath(from.getId(), to.getId());
+                if (expected == null) {
+                    assertNull(path, from + "->" + to);
+                    continue;
+                }
+                assertNotNull(path, from + "->" + to);
+                assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001, from + "->" + to);
+
+                // the expanded path consists of original edges that add up to the total weight
+                List<Country> vertices = new ArrayList<>(path.getVertices());
+                assertSame(from, vertices.get(0));
+                assertSame(to, vertices.get(vertices.size() - 1));
+                double weight = 0.0;
+                for (int i = 1; i < vertices.size(); i++) {
+                    assertNotNull(europe.getEdge(vertices.get(i - 1), vertices.get(i)));
+                    weight += europe.getEdge(vertices.get(i - 1), vertices.get(i));
+                }
+                assertEquals(expected.getTotalWeight(), weight, 0.0001);
+            }
+        }
+        assertNull(hierarchy.shortestPath("NL", "XX"));
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DirectedGraphTest {
@@ -88,6 +91,17 @@ class DirectedGraphTest {
         assertEquals(2, africa.getNumEdges());
     }
 
+    @Test
+    void checkForEachOutgoingAndIncoming() {
+        Map<Country, Integer> borders = new HashMap<>();
+        europe.forEachOutgoing(nl, borders::put);
+        assertEquals(Map.of(be, 100, de, 200, uk, 250), borders);
+        borders.clear();
+        europe.forEachIncoming(nl, borders::put);
+        assertEquals(Map.of(be, 100, de, 200, uk, 250), borders);
+        europe.forEachOutgoing(new Country("XX"), (c, b) -> fail("unknown vertex has no edges"));
+    }
+
     @Test
     void checkBorderLength() {
         assertEquals(550, europe.getEdges("NL").stream().reduce(Integer::sum).orElse(0));
@@ -118,6 +132,31 @@ class DirectedGraphTest {
         assertNull(path);
     }
 
+    @Test
+    void checkDFSearchDeepGraph() {
+        // a long chain would overflow the call stack of a recursive search
+        Country previous = africa.addOrGetVertex(new Country("C0"));
+        for (int i = 1; i < 100000; i++) {
+            Country next = africa.addOrGetVertex(new Country("C" + i));
+            africa.addConnection(previous, next, i);
+            previous = next;
+        }
+        DirectedGraph<Country, Integer>.DGPath path = africa.depthFirstSearch("C0", "C99999");
+        assertNotNull(path);
+        assertEquals(100000, path.getVertices().size());
+        assertEquals(100000, path.getVisited().size());
+        assertTrue(africa.isReachable("C99999", "C0"));
+    }
+
+    @Test
+    void checkIsReachable() {
+        assertTrue(europe.isReachable("UK", "LUX"));
+        assertTrue(europe.isReachable("HU", "HU"));
+        assertTrue(europe.isReachable("RO", "HU"));
+        assertFalse(europe.isReachable("UK", "HU"));
+        assertFalse(europe.isReachable("UK", "XX"));
+    }
+
     @Test
     void checkBFSearch() {
         DirectedGraph<Country, Integer>.DGPath path = europe.breadthFirstSearch("UK","LUX");
@@ -152,6 +191,17 @@ class DirectedGraphTest {
         assertTrue(path.getVisited().size() >= path.getVertices().size());
     }
 
+    @Test
+    void checkDSPSearchWeighted() {
+        DirectedGraph<Country, Integer>.DGPath path = europe.dijkstraShortestPath("UK", "LUX", b -> (double)b);
+        assertNotNull(path);
+        assertEquals(130.0, path.getTotalWeight(), 0.0001);
+        assertEquals(3, path.getVertices().size());
+        assertSame(europe.getVertexById("BE"), path.getVertices().toArray()[1]);
+        path = europe.dijkstraShortestPath("NL", "FR", b -> (double)b);
+        assertEquals(180.0, path.getTotalWeight(), 0.0001);
+    }
+
     @Test
     void checkDSPSearchStartIsTarget() {
         DirectedGraph<Country, Integer>.DGPath path = europe.dijkstraShortestPath("HU", "HU", b -> 2.0);
@@ -162,6 +212,267 @@ class DirectedGraphTest {
         assertEquals(1, path.getVisited().size());
     }
 
+    @Test
+    void checkBidirectionalDSPSearch() {
+        for (Country from : europe.getVertices()) {
+            for (Country to : europe.getVertices()) {
+                DirectedGraph<Country, Integer>.DGPath expected =
+                        europe.dijkstraShortestPath(from.getId(), to.getId(), b -> (double)b);
+                DirectedGraph<Country, Integer>.DGPath path =
+                        europe.bidirectionalDijkstraShortestPath(from.getId(), to.getId(), b -> (double)b);
+                if (expected == null) {
+                    assertNull(path);
+                    continue;
+                }
+                assertNotNull(path);
+                assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+                assertSame(from, path.getVertices().peek());
+                assertSame(to, ((Deque<Country>)path.getVertices()).peekLast());
+                assertTrue(path.getVisited().containsAll(path.getVertices()));
+            }
+        }
+    }
+
+    @Test
+    void checkWeightProfile() {
+        WeightProfile<Integer> profile = WeightProfile.of("border", b -> b);
+        assertEquals("border", profile.getName());
+        for (Country from : europe.getVertices()) {
+            for (Country to : europe.getVertices()) {
+                DirectedGraph<Country, Integer>.DGPath expected =
+                        europe.dijkstraShortestPath(from.getId(), to.getId(), b -> (double)b);
+                List<DirectedGraph<Country, Integer>.DGPath> paths = Arrays.asList(
+                        europe.dijkstraShortestPath(from.getId(), to.getId(), profile),
+                        europe.aStarShortestPath(from.getId(), to.getId(), profile, (v, t) -> 0.0),
+                        europe.bidirectionalDijkstraShortestPath(from.getId(), to.getId(), profile));
+                for (DirectedGraph<Country, Integer>.DGPath path : paths) {
+                    if (expected == null) {
+                        assertNull(path);
+                        continue;
+                    }
+                    assertNotNull(path);
+                    assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+                    assertEquals(expected.getVertices().size(), path.getVertices().size());
+                }
+            }
+            assertEquals(europe.reachableWithin(from.getId(), 200.0, b -> (double)b),
+                    europe.reachableWithin(from.getId(), 200.0, profile));
+        }
+        assertEquals(europe.kShortestPaths("NL", "FR", 3, b -> (double)b).stream()
+                        .map(DirectedGraph.DGPath::getTotalWeight).collect(Collectors.toList()),
+                europe.kShortestPaths("NL", "FR", 3, profile).stream()
+                        .map(DirectedGraph.DGPath::getTotalWeight).collect(Collectors.toList()));
+        assertNull(europe.dijkstraShortestPath("NL", "XX", profile));
+    }
+
+    @Test
+    void checkSearchStatistics() {
+        assertNull(europe.dijkstraShortestPath("UK", "DE", b -> (double)b).getStatistics());
+
+        europe.setCollectingStatistics(true);
+        DirectedGraph<Country, Integer>.DGPath dijkstra = europe.dijkstraShortestPath("UK", "DE", b -> (double)b);
+        SearchStatistics statistics = dijkstra.getStatistics();
+        assertNotNull(statistics);
+        assertEquals("dijkstra", statistics.getAlgorithm());
+        assertEquals(statistics.getPops(), statistics.getSettled());
+        assertTrue(statistics.getSettled() >= dijkstra.getVertices().size());
+        assertTrue(statistics.getPushes() >= statistics.getPops());
+        assertTrue(statistics.getRelaxations() >= statistics.getSettled() - 1);
+        assertTrue(statistics.getPeakFrontier() >= 1);
+        assertTrue(statistics.getNanos() >= 0);
+        assertTrue(dijkstra.toString().contains("settled="));
+
+        for (DirectedGraph<Country, Integer>.DGPath path : List.of(
+                europe.depthFirstSearch("UK", "DE"),
+                europe.breadthFirstSearch("UK", "DE"),
+                europe.aStarShortestPath("UK", "DE", b -> (double)b, (v, t) -> 0.0),
+                europe.bidirectionalDijkstraShortestPath("UK", "DE", b -> (double)b))) {
+            assertNotNull(path.getStatistics());
+            assertTrue(path.getStatistics().getSettled() > 0);
+            assertTrue(path.getStatistics().getPeakFrontier() <= europe.getNumVertices());
+        }
+
+        // searches without a single path
+        DirectedGraph<Country, Integer>.ShortestPathTree tree = europe.shortestPathTree("UK", b -> (double)b);
+        assertEquals("shortestPathTree", tree.getStatistics().getAlgorithm());
+        assertEquals(tree.size(), tree.getStatistics().getSettled());
+        List<DirectedGraph<Country, Integer>.DGPath> paths = europe.kShortestPaths("UK", "DE", 3, b -> (double)b);
+        assertEquals("kShortestPaths", paths.get(0).getStatistics().getAlgorithm());
+        assertSame(paths.get(0).getStatistics(), paths.get(paths.size() - 1).getStatistics());
+        assertTrue(paths.get(0).getStatistics().getSettled() > tree.size());
+        SearchStatisticsAggregator aggregator = SearchStatisticsAggregator.getGlobal();
+        long numReachable = aggregator.getCount("isReachable");
+        long numWithin = aggregator.getCount("reachableWithin");
+        assertTrue(europe.isReachable("UK", "DE"));
+        europe.reachableWithin("UK", 100.0, b -> (double)b);
+        assertEquals(numReachable + 1, aggregator.getCount("isReachable"));
+        assertEquals(numWithin + 1, aggregator.getCount("reachableWithin"));
+
+        // the searches of a frozen copy do the same work
+        CSRGraph<Country, Integer> frozen = europe.freeze();
+        for (String algorithm : List.of("depthFirstSearch", "breadthFirstSearch")) {
+            boolean depthFirst = algorithm.equals("depthFirstSearch");
+            SearchStatistics expected = (depthFirst ? europe.depthFirstSearch("UK", "DE")
+                    : europe.breadthFirstSearch("UK", "DE")).getStatistics();
+            SearchStatistics actual = (depthFirst ? frozen.depthFirstSearch("UK", "DE")
+                    : frozen.breadthFirstSearch("UK", "DE")).getStatistics();
+            assertEquals(algorithm, actual.getAlgorithm());
+            assertEquals(expected.getSettled(), actual.getSettled());
+            assertEquals(expected.getRelaxations(), actual.getRelaxations());
+            assertEquals(expected.getPushes(), actual.getPushes());
+            assertEquals(expected.getPops(), actual.getPops());
+            assertEquals(expected.getPeakFrontier(), actual.getPeakFrontier());
+        }
+
+        europe.setCollectingStatistics(false);
+        assertNull(europe.breadthFirstSearch("UK", "DE").getStatistics());
+        assertNull(frozen.breadthFirstSearch("UK", "DE").getStatistics());
+        assertNull(europe.shortestPathTree("UK", b -> (double)b).getStatistics());
+    }
+
+    @Test
+    void checkIncomingEdges() {
+        assertTrue(africa.addEdge(new Country("MO"), new Country("AL"), 200));
+        assertEquals(200, africa.getIncomingEdges(africa.getVertexById("AL")).get(africa.getVertexById("MO")));
+        assertTrue(africa.getIncomingEdges(africa.getVertexById("MO")).isEmpty());
+        africa.addOrGetVertex(new Country("EG"));
+        africa.removeUnconnectedVertices();
+        assertEquals(2, africa.getNumVertices());
+        assertNull(africa.getVertexById("EG"));
+    }
+
+    @Test
+    void checkShortestPathTree() {
+        DirectedGraph<Country, Integer>.ShortestPathTree tree = europe.shortestPathTree("UK", b -> (double)b);
+        assertNotNull(tree);
+        assertSame(uk, tree.getStart());
+        assertEquals(6, tree.size());
+        assertFalse(tree.isReachable("HU"));
+        assertNull(tree.getPath("HU"));
+        assertEquals(Double.POSITIVE_INFINITY, tree.getWeightTo("XX"));
+        for (Country to : tree.getReachableVertices()) {
+            DirectedGraph<Country, Integer>.DGPath expected = europe.dijkstraShortestPath("UK", to.getId(), b -> (double)b);
+            DirectedGraph<Country, Integer>.DGPath path = tree.getPath(to.getId());
+            assertEquals(expected.getTotalWeight(), tree.getWeightTo(to.getId()), 0.0001);
+            assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+            assertSame(uk, path.getVertices().peek());
+            assertTrue(path.getVisited().size() >= path.getVertices().size());
+        }
+        assertNull(europe.shortestPathTree("XX", b -> (double)b));
+    }
+
+    @Test
+    void checkReverseShortestPathTree() {
+        DirectedGraph<Country, Integer>.ShortestPathTree tree = europe.reverseShortestPathTree("UK", b -> (double)b);
+        assertNotNull(tree);
+        assertTrue(tree.isReverse());
+        assertEquals(6, tree.size());
+        assertFalse(tree.isReachable("HU"));
+        assertNull(europe.reverseShortestPathTree("XX", b -> (double)b));
+        tree = europe.reverseShortestPathTree("LUX", b -> (double)b);
+        for (Country from : europe.getVertices()) {
+            DirectedGraph<Country, Integer>.DGPath expected = europe.dijkstraShortestPath(from.getId(), "LUX", b -> (double)b);
+            DirectedGraph<Country, Integer>.DGPath path = tree.getPath(from.getId());
+            if (expected == null) {
+                assertNull(path);
+                continue;
+            }
+            assertEquals(expected.getTotalWeight(), tree.getWeightTo(from.getId()), 0.0001);
+            assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+            assertSame(from, path.getVertices().peek());
+            assertSame(lux, ((Deque<Country>)path.getVertices()).peekLast());
+        }
+    }
+
+    @Test
+    void checkLandmarkHeuristic() {
+        LandmarkHeuristic<Country, Integer> landmarks = new LandmarkHeuristic<>(europe, 3, b -> (double)b);
+        assertEquals(3, landmarks.getLandmarks().size());
+        for (Country from : europe.getVertices()) {
+            for (Country to : europe.getVertices()) {
+                DirectedGraph<Country, Integer>.DGPath expected =
+                        europe.dijkstraShortestPath(from.getId(), to.getId(), b -> (double)b);
+                if (expected == null) continue;
+                assertTrue(landmarks.apply(from, to) <= expected.getTotalWeight() + 0.0001,
+                        "landmark estimate shall not exceed the actual shortest path weight");
+                DirectedGraph<Country, Integer>.DGPath path =
+                        europe.aStarShortestPath(from.getId(), to.getId(), b -> (double)b, landmarks);
+                assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+            }
+        }
+    }
+
+    @Test
+    void checkKShortestPaths() {
+        for (String to : new String[]{"LUX", "NL", "DE"}) {
+            List<Double> allWeights = new ArrayList<>();
+            collectSimplePathWeights(uk, europe.getVertexById(to), new HashSet<>(List.of(uk)), 0.0, allWeights);
+            Collections.sort(allWeights);
+
+            List<DirectedGraph<Country, Integer>.DGPath> paths = europe.kShortestPaths("UK", to, 6, b -> (double)b);
+            assertEquals(Math.min(6, allWeights.size()), paths.size());
+            Set<List<Country>> distinct = new HashSet<>();
+            for (int i = 0; i < paths.size(); i++) {
+                DirectedGraph<Country, Integer>.DGPath path = paths.get(i);
+                assertEquals(allWeights.get(i), path.getTotalWeight(), 0.0001);
+                assertSame(uk, path.getVertices().peek());
+                assertEquals(to, ((Deque<Country>)path.getVertices()).peekLast().getId());
+                assertEquals(path.getVertices().size(), new HashSet<>(path.getVertices()).size());
+                assertTrue(distinct.add(new ArrayList<>(path.getVertices())));
+            }
+        }
+        assertTrue(europe.kShortestPaths("UK", "HU", 3, b -> (double)b).isEmpty());
+        assertNull(europe.kShortestPaths("UK", "XX", 3, b -> (double)b));
+    }
+
+    // enumerates the weights of all loop-free paths from current to target
+    private void collectSimplePathWeights(Country current, Country target, Set<Country> onPath,
+                                          double weight, List<Double> weights) {
+        if (current.equals(target)) {
+            weights.add(weight);
+            return;
+        }
+        for (Country neighbour : europe.getNeighbours(current)) {
+            if (!onPath.add(neighbour)) continue;
+            collectSimplePathWeights(neighbour, target, onPath, weight + europe.getEdge(current, neighbour), weights);
+            onPath.remove(neighbour);
+        }
+    }
+
+    @Test
+    void checkReachableWithin() {
+        Map<Country, Double> reachable = europe.reachableWithin("UK", 130.0, b -> (double)b);
+        assertEquals(List.of(uk, be, de, lux), List.copyOf(reachable.keySet()));
+        assertEquals(130.0, reachable.get(lux), 0.0001);
+        assertEquals(Map.of(hu, 0.0), europe.reachableWithin("HU", 200.0, b -> (double)b));
+        assertTrue(europe.reachableWithin("UK", -1.0, b -> (double)b).isEmpty());
+        assertNull(europe.reachableWithin("XX", 100.0, b -> (double)b));
+    }
+
+    @Test
+    void checkMinimumSpanningTree() {
+        DirectedGraph<Country, Integer> prim = europe.primMinimumSpanningTree(b -> (double)b);
+        DirectedGraph<Country, Integer> kruskal = europe.kruskalMinimumSpanningTree(b -> (double)b);
+        for (DirectedGraph<Country, Integer> tree : List.of(prim, kruskal, europe.minimumSpanningTree(b -> (double)b))) {
+            assertEquals(8, tree.getNumVertices());
+            // a spanning forest of two components has 6 connections in both directions
+            assertEquals(12, tree.getNumEdges());
+            assertEquals(280 + 250, totalWeight(tree) / 2);
+            assertNotNull(tree.getEdge("BE", "DE"));
+            assertNull(tree.getEdge("NL", "DE"));
+            assertNotNull(tree.breadthFirstSearch("UK", "FR"));
+            assertNull(tree.breadthFirstSearch("UK", "HU"));
+        }
+    }
+
+    private int totalWeight(DirectedGraph<Country, Integer> graph) {
+        int total = 0;
+        for (Country country : graph.getVertices()) {
+            for (Integer border : graph.getEdges(country)) total += border;
+        }
+        return total;
+    }
+
     @Test
     void checkDSPSearchUnconnected() {
         DirectedGraph<Country, Integer>.DGPath path = europe.dijkstraShortestPath("UK", "HU", b -> 2.0);
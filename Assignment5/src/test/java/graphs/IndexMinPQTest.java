@@ -0,0 +1,58 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexMinPQTest {
+
+    IndexMinPQ pq;
+
+    @BeforeEach
+    void setUp() {
+        pq = new IndexMinPQ(10);
+        pq.insert(3, 30.0);
+        pq.insert(7, 70.0);
+        pq.insert(1, 10.0);
+        pq.insert(5, 50.0);
+    }
+
+    @Test
+    void checkDelMinOrder() {
+        assertEquals(4, pq.size());
+        assertEquals(1, pq.delMin());
+        assertEquals(3, pq.delMin());
+        assertEquals(5, pq.delMin());
+        assertEquals(7, pq.delMin());
+        assertTrue(pq.isEmpty());
+        assertThrows(NoSuchElementException.class, () -> pq.delMin());
+    }
+
+    @Test
+    void checkDecreaseKey() {
+        pq.decreaseKey(7, 5.0);
+        assertEquals(7, pq.minKey());
+        assertEquals(5.0, pq.minPriority(), 0.0001);
+        assertFalse(pq.insertOrDecrease(5, 60.0));
+        assertTrue(pq.insertOrDecrease(5, 1.0));
+        assertEquals(5, pq.delMin());
+        assertFalse(pq.contains(5));
+        assertThrows(IllegalArgumentException.class, () -> pq.decreaseKey(3, 40.0));
+        assertThrows(NoSuchElementException.class, () -> pq.decreaseKey(5, 0.0));
+    }
+
+    @Test
+    void checkClearAndReuse() {
+        pq.clear();
+        assertTrue(pq.isEmpty());
+        assertFalse(pq.contains(3));
+        pq.insert(3, 3.0);
+        pq.ensureCapacity(20);
+        pq.insert(15, 1.5);
+        assertEquals(15, pq.delMin());
+        assertEquals(3, pq.delMin());
+    }
+}
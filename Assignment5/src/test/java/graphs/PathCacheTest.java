@@ -0,0 +1,133 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathCacheTest {
+
+    // edges are mutable arrays holding their weight, such that they can be changed after they have been cached
+    DirectedGraph<Country, double[]> graph;
+    WeightProfile<double[]> weight = WeightProfile.of("weight", e -> e[0]);
+    PathCache<Country, double[]> cache;
+
+    @BeforeEach
+    void setUp() {
+        graph = new DirectedGraph<>();
+        for (String id : new String[]{"A", "B", "C", "D", "E"}) graph.addOrGetVertex(new Country(id));
+        graph.addEdge("A", "B", new double[]{1.0});
+        graph.addEdge("B", "C", new double[]{1.0});
+        graph.addEdge("C", "D", new double[]{1.0});
+        graph.addEdge("A", "D", new double[]{5.0});
+        graph.addEdge("D", "E", new double[]{1.0});
+        cache = new PathCache<>(graph, 10);
+    }
+
+    @Test
+    void checkHitsAndMisses() {
+        DirectedGraph<Country, double[]>.DGPath path = cache.shortestPath("A", "D", weight);
+        assertEquals(3.0, path.getTotalWeight(), 0.0001);
+        assertSame(path, cache.shortestPath("A", "D", weight));
+        assertSame(path, cache.shortestPath("A", "D", WeightProfile.of("weight", e -> e[0])));
+        assertNotSame(path, cache.shortestPath("A", "D", WeightProfile.of("hops", e -> 1.0)));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getNumPaths());
+        assertEquals(6, cache.getSize());
+
+        // failed searches are not cached
+        assertNull(cache.shortestPath("E", "A", weight));
+        assertNull(cache.shortestPath("A", "XX", weight));
+        assertEquals(2, cache.getNumPaths());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void checkLeastRecentlyUsedEviction() {
+        cache.shortestPath("A", "D", weight);       // 4 vertices
+        cache.shortestPath("B", "E", weight);       // 4 vertices
+        cache.shortestPath("A", "D", weight);       // makes B-E the least recently used
+        cache.shortestPath("C", "E", weight);       // 3 vertices, exceeds the capacity of 10
+        assertEquals(1, cache.getEvictions());
+        assertEquals(7, cache.getSize());
+        assertEquals(2, cache.getNumPaths());
+
+        long misses = cache.getMisses();
+        cache.shortestPath("A", "D", weight);
+        assertEquals(misses, cache.getMisses());
+        cache.shortestPath("B", "E", weight);
+        assertEquals(misses + 1, cache.getMisses());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+    }
+
+    @Test
+    void checkChangeDuringSearch() {
+        // the edge gets heavier right after the search has taken its weight
+        double[] edge = graph.getEdge("B", "C");
+        boolean[] isChanged = {false};
+        WeightProfile<double[]> changing = WeightProfile.of("weight", e -> {
+            double weight = e[0];
+            if (e == edge && !isChanged[0]) {
+                isChanged[0] = true;
+                double[] previous = edge.clone();
+                edge[0] = 10.0;
+                cache.edgeChanged(edge, previous);
+            }
+            return weight;
+        });
+        DirectedGraph<Country, double[]>.DGPath stale = cache.shortestPath("A", "D", changing);
+        assertTrue(isChanged[0]);
+        assertEquals(3.0, stale.getTotalWeight(), 0.0001);
+
+        // the outdated path has not been cached
+        assertEquals(0, cache.getNumPaths());
+        assertEquals(5.0, cache.shortestPath("A", "D", weight).getTotalWeight(), 0.0001);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void checkInvalidationOnHeavierEdge() {
+        DirectedGraph<Country, double[]>.DGPath viaB = cache.shortestPath("A", "D", weight);
+        cache.shortestPath("D", "E", weight);
+        double[] edge = graph.getEdge("B", "C");
+        double[] previous = edge.clone();
+        edge[0] = 10.0;
+        cache.edgeChanged(edge, previous);
+
+        // only the path over the changed edge has been invalidated
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(1, cache.getNumPaths());
+        DirectedGraph<Country, double[]>.DGPath direct = cache.shortestPath("A", "D", weight);
+        assertNotSame(viaB, direct);
+        assertEquals(5.0, direct.getTotalWeight(), 0.0001);
+        assertEquals(2, direct.getVertices().size());
+    }
+
+    @Test
+    void checkInvalidationOnLighterEdge() {
+        cache.shortestPath("A", "D", weight);
+        cache.shortestPath("D", "E", weight);
+        double[] edge = graph.getEdge("A", "D");
+        double[] previous = edge.clone();
+        edge[0] = 1.0;
+        cache.edgeChanged(edge, previous);
+
+        // the lighter edge was not on any path, but may offer a shortcut to all of them
+        assertEquals(2, cache.getInvalidations());
+        assertEquals(0, cache.getNumPaths());
+        assertEquals(1.0, cache.shortestPath("A", "D", weight).getTotalWeight(), 0.0001);
+    }
+
+    @Test
+    void checkInvalidationOnStructuralChange() {
+        cache.shortestPath("A", "E", weight);
+        graph.addEdge("A", "E", new double[]{1.0});
+        List<Country> path = new ArrayList<>(cache.shortestPath("A", "E", weight).getVertices());
+        assertEquals(2, path.size());
+        assertEquals(1, cache.getInvalidations());
+    }
+}
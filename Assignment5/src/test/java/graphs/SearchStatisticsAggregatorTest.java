@@ -0,0 +1,59 @@
+package graphs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchStatisticsAggregatorTest {
+
+    @Test
+    void checkRecord() {
+        SearchStatisticsAggregator aggregator = new SearchStatisticsAggregator();
+        for (int s = 0; s < 10; s++) {
+            SearchStatistics statistics = new SearchStatistics("dijkstra");
+            for (int i = 0; i <= s; i++) {
+                statistics.countPush(i + 1);
+                statistics.countPop();
+                statistics.countSettled();
+                statistics.countRelaxation();
+                statistics.countRelaxation();
+            }
+            statistics.end();
+            aggregator.record(statistics);
+        }
+        aggregator.record(new SearchStatistics("aStar"));
+
+        assertEquals(Set.of("aStar", "dijkstra"), aggregator.getAlgorithms());
+        assertEquals(10, aggregator.getCount("dijkstra"));
+        assertEquals(0, aggregator.getCount("bfs"));
+        assertEquals(5.5, aggregator.getMeanSettled("dijkstra"), 0.0001);
+        assertEquals(11.0, aggregator.getMeanRelaxations("dijkstra"), 0.0001);
+        assertEquals(10, Arrays.stream(aggregator.getLatencyHistogram("dijkstra")).sum());
+        assertTrue(aggregator.getLatencyPercentile("dijkstra", 50) <= aggregator.getLatencyPercentile("dijkstra", 99));
+        assertTrue(aggregator.toString().contains("dijkstra: 10 searches"));
+
+        aggregator.reset();
+        assertTrue(aggregator.getAlgorithms().isEmpty());
+        assertEquals(0, aggregator.getLatencyPercentile("dijkstra", 50));
+    }
+
+    @Test
+    void checkLatencyPercentile() {
+        SearchStatisticsAggregator aggregator = new SearchStatisticsAggregator();
+        SearchStatistics statistics = new SearchStatistics("bfs");
+        statistics.end();
+        aggregator.record(statistics);
+        long nanos = Math.max(1, statistics.getNanos());
+        long bound = aggregator.getLatencyPercentile("bfs", 100);
+        assertTrue(nanos < bound && bound <= 2 * Math.max(2, nanos), nanos + " " + bound);
+
+        // the bounds of the last buckets do not fit a long
+        assertEquals(2, SearchStatisticsAggregator.upperBoundOf(0));
+        assertEquals(1L << 62, SearchStatisticsAggregator.upperBoundOf(61));
+        assertEquals(Long.MAX_VALUE, SearchStatisticsAggregator.upperBoundOf(62));
+        assertEquals(Long.MAX_VALUE, SearchStatisticsAggregator.upperBoundOf(63));
+    }
+}
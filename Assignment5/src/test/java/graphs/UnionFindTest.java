@@ -0,0 +1,39 @@
+package graphs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnionFindTest {
+
+    UnionFind sets;
+
+    @BeforeEach
+    void setUp() {
+        sets = new UnionFind(8);
+    }
+
+    @Test
+    void checkUnion() {
+        assertEquals(8, sets.getNumSets());
+        assertTrue(sets.union(0, 1));
+        assertTrue(sets.union(2, 3));
+        assertTrue(sets.union(1, 3));
+        assertFalse(sets.union(0, 2));
+        assertEquals(5, sets.getNumSets());
+        assertTrue(sets.connected(0, 3));
+        assertFalse(sets.connected(0, 4));
+        assertEquals(4, sets.getSetSize(2));
+        assertEquals(1, sets.getSetSize(7));
+    }
+
+    @Test
+    void checkLongChain() {
+        UnionFind chain = new UnionFind(100000);
+        for (int e = 1; e < chain.getNumElements(); e++) chain.union(e - 1, e);
+        assertEquals(1, chain.getNumSets());
+        assertEquals(chain.find(0), chain.find(99999));
+        assertEquals(100000, chain.getSetSize(12345));
+    }
+}
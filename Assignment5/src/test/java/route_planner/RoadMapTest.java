@@ -0,0 +1,419 @@
+package route_planner;
+
+import graphs.ContractionHierarchy;
+import graphs.DirectedGraph;
+import graphs.LandmarkHeuristic;
+import graphs.PathCache;
+import graphs.SearchStatisticsAggregator;
+import graphs.WeightProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadMapTest {
+
+    RoadMap roadMap;
+
+    @BeforeEach
+    void setUp() {
+        RoadMap.reSeedRandomizer(20211220L);
+        roadMap = new RoadMap("Junctions.csv", "Roads.csv");
+    }
+
+    @Test
+    void checkAStarShortestPath() {
+        RoadMap.DGPath dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", Road::getLength);
+        RoadMap.DGPath aStar = roadMap.aStarShortestPath("Amsterdam", "Meppel");
+        assertNotNull(aStar);
+        assertEquals(dijkstra.getTotalWeight(), aStar.getTotalWeight(), 0.0001);
+        assertEquals(dijkstra.getVertices().size(), aStar.getVertices().size());
+        assertTrue(aStar.getVisited().size() < dijkstra.getVisited().size(),
+                "A* should visit fewer junctions than a blind dijkstra search");
+    }
+
+    @Test
+    void checkAStarFastestRoute() {
+        RoadMap.DGPath dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel",
+                r -> r.getLength() / r.getMaxSpeed());
+        RoadMap.DGPath aStar = roadMap.aStarFastestRoute("Amsterdam", "Meppel");
+        assertNotNull(aStar);
+        assertEquals(dijkstra.getTotalWeight(), aStar.getTotalWeight(), 0.0001);
+        assertTrue(aStar.getVisited().size() <= dijkstra.getVisited().size());
+        assertNull(roadMap.aStarFastestRoute("Amsterdam", "Atlantis"));
+
+        // a road faster than the cached maximum speed keeps the estimates admissible
+        Junction weesp = roadMap.getVertexById("Weesp"), steenwijk = roadMap.getVertexById("Steenwijk");
+        double maxSpeed = roadMap.getMaxSpeedOnMap();
+        roadMap.addConnection(weesp, steenwijk, new Road("A300", weesp.getDistance(steenwijk), 300));
+        assertEquals(300.0, roadMap.getMaxSpeedOnMap(), 0.0);
+        assertTrue(maxSpeed < 300.0);
+        dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", r -> r.getLength() / r.getMaxSpeed());
+        aStar = roadMap.aStarFastestRoute("Amsterdam", "Meppel");
+        assertEquals(dijkstra.getTotalWeight(), aStar.getTotalWeight(), 0.0001);
+        assertTrue(aStar.getVertices().contains(steenwijk) && aStar.getVertices().contains(weesp));
+    }
+
+    @Test
+    void checkBidirectionalDijkstra() {
+        RoadMap.DGPath dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", Road::getLength);
+        RoadMap.DGPath path = roadMap.bidirectionalDijkstraShortestPath("Amsterdam", "Meppel", Road::getLength);
+        assertNotNull(path);
+        assertEquals(dijkstra.getTotalWeight(), path.getTotalWeight(), 0.0001);
+        assertEquals(dijkstra.getVertices().size(), path.getVertices().size());
+        assertTrue(path.getVisited().size() < dijkstra.getVisited().size());
+    }
+
+    @Test
+    void checkContractionHierarchy() {
+        ContractionHierarchy<Junction, Road> hierarchy =
+                new ContractionHierarchy<>(roadMap, r -> r.getLength() / r.getMaxSpeed());
+        for (String to : new String[]{"Meppel", "Maastricht", "Amsterdam", "Vlissingen"}) {
+            RoadMap.DGPath dijkstra = roadMap.dijkstraShortestPath("Amsterdam", to,
+                    r -> r.getLength() / r.getMaxSpeed());
+            RoadMap.DGPath path = hierarchy.shortestPath("Amsterdam", to);
+            assertNotNull(path);
+            assertEquals(dijkstra.getTotalWeight(), path.getTotalWeight(), 0.0001);
+            assertEquals(dijkstra.getVertices().size(), path.getVertices().size());
+        }
+    }
+
+    @Test
+    void checkDistanceMatrix() {
+        List<String> sources = List.of("Amsterdam", "Meppel", "Maastricht");
+        List<String> targets = List.of("Vlissingen", "Amsterdam", "Groningen", "Meppel");
+        double[][] matrix = roadMap.distanceMatrix(sources, targets, r -> r.getLength() / r.getMaxSpeed());
+        assertEquals(sources.size(), matrix.length);
+        for (int s = 0; s < sources.size(); s++) {
+            assertEquals(targets.size(), matrix[s].length);
+            for (int t = 0; t < targets.size(); t++) {
+                RoadMap.DGPath path = roadMap.dijkstraShortestPath(sources.get(s), targets.get(t),
+                        r -> r.getLength() / r.getMaxSpeed());
+                assertEquals(path.getTotalWeight(), matrix[s][t], 0.0001);
+            }
+        }
+        assertNull(roadMap.distanceMatrix(sources, List.of("Atlantis"), Road::getLength));
+    }
+
+    @Test
+    void checkWeightProfiles() {
+        Function<Road, Double> travelTime = r -> r.getLength() / r.getMaxSpeed();
+        RoadMap.DGPath expected = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        RoadMap.DGPath path = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME);
+        assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+        assertEquals(new ArrayList<>(expected.getVertices()), new ArrayList<>(path.getVertices()));
+        assertEquals(roadMap.dijkstraShortestPath("Amsterdam", "Meppel", Road::getLength).getTotalWeight(),
+                roadMap.dijkstraShortestPath("Amsterdam", "Meppel", RoadMap.DISTANCE).getTotalWeight(), 0.0001);
+        assertNull(roadMap.dijkstraShortestPath("Amsterdam", "Atlantis", RoadMap.TRAVEL_TIME));
+
+        // the precalculated weights follow the changes of the roads on the route
+        List<Junction> route = new ArrayList<>(path.getVertices());
+        for (int i = 1; i < route.size(); i++) {
+            roadMap.getEdge(route.get(i - 1).getId(), route.get(i).getId()).setMaxSpeed(10);
+        }
+        expected = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        path = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME);
+        assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+        assertNotEquals(route, new ArrayList<>(path.getVertices()));
+
+        List<String> sources = List.of("Amsterdam", "Meppel");
+        List<String> targets = List.of("Maastricht", "Groningen");
+        double[][] expectedMatrix = roadMap.distanceMatrix(sources, targets, travelTime);
+        double[][] matrix = roadMap.distanceMatrix(sources, targets, RoadMap.TRAVEL_TIME);
+        for (int s = 0; s < sources.size(); s++) {
+            assertArrayEquals(expectedMatrix[s], matrix[s], 0.0001);
+        }
+
+        // profile searches reject unreachable targets and collect statistics like all other searches
+        roadMap.addConnection(new Junction("Atlantis"), new Junction("Lemuria"), new Road("A0", 10.0, 100));
+        roadMap.setCollectingStatistics(true);
+        SearchStatisticsAggregator aggregator = SearchStatisticsAggregator.getGlobal();
+        long numSearches = aggregator.getCount("dijkstra");
+        assertNull(roadMap.dijkstraShortestPath("Amsterdam", "Atlantis", RoadMap.TRAVEL_TIME));
+        assertNull(roadMap.dijkstraShortestPath("Amsterdam", "Atlantis", travelTime));
+        assertEquals(numSearches + 2, aggregator.getCount("dijkstra"));
+        expected = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        path = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME);
+        assertEquals(expected.getTotalWeight(), path.getTotalWeight(), 0.0001);
+        assertEquals("dijkstra", path.getStatistics().getAlgorithm());
+        assertEquals(expected.getStatistics().getSettled(), path.getStatistics().getSettled());
+        assertEquals(expected.getStatistics().getRelaxations(), path.getStatistics().getRelaxations());
+        assertEquals(numSearches + 4, aggregator.getCount("dijkstra"));
+        roadMap.setCollectingStatistics(false);
+        assertNull(roadMap.dijkstraShortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME).getStatistics());
+    }
+
+    @Test
+    void checkRoadChangeDuringProfileBuild() {
+        Function<Road, Double> travelTime = r -> r.getLength() / r.getMaxSpeed();
+        RoadMap.DGPath path = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        List<Junction> route = new ArrayList<>(path.getVertices());
+        Road changed = roadMap.getEdge(route.get(1).getId(), route.get(2).getId());
+
+        // the road changes after its weight has been materialized, while the frozen copy is being built
+        boolean[] isChanged = {false};
+        WeightProfile<Road> profile = WeightProfile.of("slowed", r -> {
+            double weight = r.getLength() / r.getMaxSpeed();
+            if (r == changed && !isChanged[0]) {
+                isChanged[0] = true;
+                r.setMaxSpeed(5);
+            }
+            return weight;
+        });
+        roadMap.dijkstraShortestPath("Amsterdam", "Meppel", profile);
+        assertTrue(isChanged[0]);
+
+        RoadMap.DGPath expected = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        assertEquals(expected.getTotalWeight(),
+                roadMap.dijkstraShortestPath("Amsterdam", "Meppel", profile).getTotalWeight(), 0.0001);
+        assertNotEquals(path.getTotalWeight(), expected.getTotalWeight(), 0.0001);
+    }
+
+    @Test
+    void checkMaintainedShortestPathTree() {
+        Function<Road, Double> travelTime = r -> r.getLength() / r.getMaxSpeed();
+        RoadMap.ShortestPathTree tree = roadMap.maintainShortestPathTree("Amsterdam", travelTime);
+
+        // an accident, a new fast lane, and the recovery of the accident
+        roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(5);
+        assertMatchesFreshTree(tree, travelTime);
+        assertTrue(roadMap.updateRoad("Lelystad", "Dronten", 1.0, 130));
+        assertMatchesFreshTree(tree, travelTime);
+        roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(100);
+        assertMatchesFreshTree(tree, travelTime);
+        assertFalse(roadMap.updateRoad("Amsterdam", "Meppel", 1.0, 130));
+
+        assertEquals(3, roadMap.getRoadChanges().size());
+        assertEquals(5, roadMap.getRoadChanges().get(0).getNewMaxSpeed());
+        assertEquals(100, roadMap.getRoadChanges().get(0).getOldMaxSpeed());
+        assertEquals(3, roadMap.drainRoadChanges().size());
+        assertTrue(roadMap.getRoadChanges().isEmpty());
+
+        // a released tree is no longer maintained
+        roadMap.releaseShortestPathTree(tree);
+        double weight = tree.getWeightTo("Meppel");
+        roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(5);
+        assertEquals(weight, tree.getWeightTo("Meppel"), 0.0);
+    }
+
+    @Test
+    void checkAltShortestPath() {
+        Function<Road, Double> travelTime = r -> r.getLength() / r.getMaxSpeed();
+        LandmarkHeuristic<Junction, Road> landmarks = roadMap.selectLandmarks(8, travelTime);
+        assertEquals(8, landmarks.getLandmarks().size());
+
+        RoadMap.DGPath dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        RoadMap.DGPath alt = roadMap.altShortestPath("Amsterdam", "Meppel", landmarks);
+        assertNotNull(alt);
+        assertEquals(dijkstra.getTotalWeight(), alt.getTotalWeight(), 0.0001);
+        assertTrue(alt.getVisited().size() < roadMap.aStarFastestRoute("Amsterdam", "Meppel").getVisited().size(),
+                "landmarks should visit fewer junctions than the straight-line estimate of travel time");
+
+        // the landmark distances remain admissible after an accident
+        roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(5);
+        dijkstra = roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime);
+        alt = roadMap.altShortestPath("Amsterdam", "Meppel", landmarks);
+        assertEquals(dijkstra.getTotalWeight(), alt.getTotalWeight(), 0.0001);
+        for (RoadMap.ShortestPathTree tree : landmarks.getShortestPathTrees()) {
+            assertMatchesFreshTree(tree, travelTime);
+        }
+        roadMap.releaseLandmarks(landmarks);
+    }
+
+    @Test
+    void checkMinimumSpanningTree() {
+        DirectedGraph<Junction, Road> prim = roadMap.primMinimumSpanningTree(Road::getLength);
+        DirectedGraph<Junction, Road> kruskal = roadMap.kruskalMinimumSpanningTree(Road::getLength);
+        assertEquals(roadMap.getNumVertices(), prim.getNumVertices());
+        assertEquals(prim.getNumEdges(), kruskal.getNumEdges());
+        assertEquals(totalLength(prim), totalLength(kruskal), 0.0001);
+        assertTrue(totalLength(prim) < totalLength(roadMap));
+
+        // the tree connects every pair of junctions that is connected by the map
+        assertNotNull(prim.breadthFirstSearch("Amsterdam", "Meppel"));
+        assertNotNull(kruskal.breadthFirstSearch("Maastricht", "Vlissingen"));
+    }
+
+    private double totalLength(DirectedGraph<Junction, Road> graph) {
+        double total = 0.0;
+        for (Junction junction : graph.getVertices()) {
+            for (Road road : graph.getEdges(junction)) total += road.getLength();
+        }
+        return total;
+    }
+
+    @Test
+    void checkKShortestPaths() {
+        Function<Road, Double> travelTime = r -> r.getLength() / r.getMaxSpeed();
+        List<RoadMap.DGPath> paths = roadMap.kShortestPaths("Amsterdam", "Meppel", 3, travelTime);
+        assertEquals(3, paths.size());
+        assertEquals(roadMap.dijkstraShortestPath("Amsterdam", "Meppel", travelTime).getTotalWeight(),
+                paths.get(0).getTotalWeight(), 0.000001);
+        for (int i = 0; i < paths.size(); i++) {
+            List<Junction> junctions = new ArrayList<>(paths.get(i).getVertices());
+            double weight = 0.0;
+            for (int j = 1; j < junctions.size(); j++) {
+                weight += travelTime.apply(roadMap.getEdge(junctions.get(j - 1), junctions.get(j)));
+            }
+            assertEquals(weight, paths.get(i).getTotalWeight(), 0.000001);
+            if (i > 0) {
+                assertTrue(paths.get(i - 1).getTotalWeight() <= paths.get(i).getTotalWeight());
+                assertNotEquals(new ArrayList<>(paths.get(i - 1).getVertices()), junctions);
+            }
+        }
+    }
+
+    @Test
+    void checkRoadChangesLimit() {
+        Road road = roadMap.getEdge("Diemen", "Weesp");
+        for (int i = 0; i <= RoadMap.MAX_ROAD_CHANGES; i++) road.setMaxSpeed(50 + i % 2);
+        List<RoadChange> changes = roadMap.getRoadChanges();
+        assertEquals(RoadMap.MAX_ROAD_CHANGES, changes.size());
+        // the first change has been dropped
+        assertEquals(50, changes.get(0).getOldMaxSpeed());
+        assertEquals(51, changes.get(0).getNewMaxSpeed());
+    }
+
+    @Test
+    void checkReachableWithinMinutes() {
+        Map<Junction, Double> reachable = roadMap.reachableWithinMinutes("Amsterdam", 30.0);
+        RoadMap.ShortestPathTree tree = roadMap.shortestPathTree("Amsterdam", r -> 60.0 * r.getLength() / r.getMaxSpeed());
+        for (Junction junction : tree.getReachableVertices()) {
+            double minutes = tree.getWeightTo(junction.getId());
+            assertEquals(minutes <= 30.0, reachable.containsKey(junction));
+            if (minutes <= 30.0) assertEquals(minutes, reachable.get(junction), 0.000001);
+        }
+        assertTrue(reachable.size() > 1 && reachable.size() < tree.size());
+    }
+
+    @Test
+    void checkPathCache() {
+        PathCache<Junction, Road> cache = roadMap.createPathCache(1000);
+        RoadMap.DGPath path = cache.shortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME);
+        RoadMap.DGPath other = cache.shortestPath("Maastricht", "Vlissingen", RoadMap.TRAVEL_TIME);
+        assertSame(path, cache.shortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME));
+        assertEquals(1, cache.getHits());
+
+        // a slower road on the route only invalidates that route
+        List<Junction> route = new ArrayList<>(path.getVertices());
+        roadMap.getEdge(route.get(3).getId(), route.get(4).getId()).setMaxSpeed(10);
+        assertEquals(1, cache.getInvalidations());
+        assertSame(other, cache.shortestPath("Maastricht", "Vlissingen", RoadMap.TRAVEL_TIME));
+        RoadMap.DGPath detour = cache.shortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME);
+        assertEquals(roadMap.dijkstraShortestPath("Amsterdam", "Meppel", Road::getTravelTime).getTotalWeight(),
+                detour.getTotalWeight(), 0.0001);
+        assertTrue(detour.getTotalWeight() > path.getTotalWeight());
+
+        // a faster road may shorten any route
+        roadMap.getEdge(route.get(3).getId(), route.get(4).getId()).setMaxSpeed(200);
+        assertEquals(0, cache.getNumPaths());
+        assertTrue(cache.shortestPath("Amsterdam", "Meppel", RoadMap.TRAVEL_TIME).getTotalWeight()
+                < path.getTotalWeight());
+
+        roadMap.releasePathCache(cache);
+        roadMap.getEdge(route.get(3).getId(), route.get(4).getId()).setMaxSpeed(10);
+        assertEquals(1, cache.getNumPaths());
+    }
+
+    @Test
+    void checkNearestJunctions() {
+        Junction amsterdam = roadMap.getVertexById("Amsterdam");
+        assertSame(amsterdam, roadMap.nearestJunction(amsterdam.getLocationX(), amsterdam.getLocationY()));
+
+        Random random = new Random(20211220L);
+        for (int query = 0; query < 50; query++) {
+            double x = 10.0 + 270.0 * random.nextDouble();
+            double y = 300.0 + 320.0 * random.nextDouble();
+            List<Junction> expected = new ArrayList<>(roadMap.getVertices());
+            expected.sort(Comparator.comparingDouble(j -> Math.hypot(j.getLocationX() - x, j.getLocationY() - y)));
+
+            assertSame(expected.get(0), roadMap.nearestJunction(x, y));
+            assertEquals(expected.subList(0, 5), roadMap.nearestJunctions(x, y, 5));
+            List<Junction> within = roadMap.junctionsWithinRadius(x, y, 25.0);
+            assertEquals(expected.stream()
+                    .filter(j -> Math.hypot(j.getLocationX() - x, j.getLocationY() - y) <= 25.0)
+                    .collect(Collectors.toList()), within);
+        }
+
+        // the index follows the junctions in the map
+        Junction atlantis = new Junction("Atlantis");
+        atlantis.setLocationX(500.0);
+        atlantis.setLocationY(500.0);
+        roadMap.addOrGetVertex(atlantis);
+        assertSame(atlantis, roadMap.nearestJunction(499.0, 499.0));
+        roadMap.removeUnconnectedVertices();
+        assertNotSame(atlantis, roadMap.nearestJunction(499.0, 499.0));
+    }
+
+    @Test
+    void checkSnapshot(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("RoadmapNL.bin");
+        roadMap.getEdge("Diemen", "Weesp").setMaxSpeed(5);
+        roadMap.writeSnapshot(file);
+        RoadMap restored = RoadMap.readSnapshot(file);
+
+        assertEquals(roadMap.getNumVertices(), restored.getNumVertices());
+        assertEquals(roadMap.getNumEdges(), restored.getNumEdges());
+        for (Junction from : roadMap.getVertices()) {
+            Junction copy = restored.getVertexById(from.getId());
+            assertEquals(from.getLocationX(), copy.getLocationX(), 0.0);
+            assertEquals(from.getLocationY(), copy.getLocationY(), 0.0);
+            assertEquals(from.getPopulation(), copy.getPopulation());
+            roadMap.forEachOutgoing(from, (to, road) -> {
+                Road restoredRoad = restored.getEdge(from.getId(), to.getId());
+                assertEquals(road.getName(), restoredRoad.getName());
+                assertEquals(road.getLength(), restoredRoad.getLength(), 0.0);
+                assertEquals(road.getMaxSpeed(), restoredRoad.getMaxSpeed());
+            });
+        }
+        assertEquals(roadMap.aStarFastestRoute("Amsterdam", "Meppel").getTotalWeight(),
+                restored.aStarFastestRoute("Amsterdam", "Meppel").getTotalWeight(), 0.0);
+
+        // the restored roads notify the restored map about changes
+        assertTrue(restored.updateRoad("Lelystad", "Dronten", 1.0, 130));
+        assertEquals(1, restored.getRoadChanges().size());
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> RoadMap.readSnapshot(file));
+
+        // truncated files and corrupt counts or string lengths are rejected before anything is allocated
+        roadMap.writeSnapshot(file);
+        byte[] snapshot = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(snapshot, snapshot.length / 2));
+        assertThrows(IOException.class, () -> RoadMap.readSnapshot(file));
+        Files.write(file, ByteBuffer.allocate(12)
+                .putInt(RoadMapSnapshot.MAGIC).putInt(RoadMapSnapshot.VERSION).putInt(Integer.MAX_VALUE).array());
+        assertThrows(IOException.class, () -> RoadMap.readSnapshot(file));
+        Files.write(file, ByteBuffer.allocate(16)
+                .putInt(RoadMapSnapshot.MAGIC).putInt(RoadMapSnapshot.VERSION).putInt(-1).putInt(0).array());
+        assertThrows(IOException.class, () -> RoadMap.readSnapshot(file));
+        Files.write(file, ByteBuffer.allocate(40)
+                .putInt(RoadMapSnapshot.MAGIC).putInt(RoadMapSnapshot.VERSION).putInt(1).putInt(2000000000).array());
+        assertThrows(IOException.class, () -> RoadMap.readSnapshot(file));
+    }
+
+    private void assertMatchesFreshTree(RoadMap.ShortestPathTree tree, Function<Road, Double> weightMapper) {
+        RoadMap.ShortestPathTree fresh = tree.isReverse()
+                ? roadMap.reverseShortestPathTree(tree.getStart().getId(), weightMapper)
+                : roadMap.shortestPathTree(tree.getStart().getId(), weightMapper);
+        assertEquals(fresh.getReachableVertices(), tree.getReachableVertices());
+        for (Junction junction : fresh.getReachableVertices()) {
+            assertEquals(fresh.getWeightTo(junction.getId()), tree.getWeightTo(junction.getId()), 0.000001);
+            assertEquals(tree.getWeightTo(junction.getId()), tree.getPath(junction.getId()).getTotalWeight(), 0.000001);
+        }
+    }
+}
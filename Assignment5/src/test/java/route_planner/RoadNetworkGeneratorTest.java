@@ -0,0 +1,89 @@
+package route_planner;
+
+import graphs.ComponentIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadNetworkGeneratorTest {
+
+    @Test
+    void checkBuildRoadMap() {
+        RoadMap roadMap = new RoadNetworkGenerator(2500, 20211220L).buildRoadMap();
+        assertTrue(roadMap.getNumVertices() >= 2500);
+        assertTrue(roadMap.getNumVertices() < 2600);
+
+        // all junctions are connected by roads in both directions, within the area of the Netherlands
+        ComponentIndex<Junction, Road> components = roadMap.getComponentIndex();
+        assertEquals(1, components.getNumStrongComponents());
+        Set<Integer> speeds = new TreeSet<>();
+        for (Junction junction : roadMap.getVertices()) {
+            assertTrue(junction.getLocationX() >= 10.0 && junction.getLocationX() <= 280.0);
+            assertTrue(junction.getLocationY() >= 300.0 && junction.getLocationY() <= 620.0);
+            for (Road road : roadMap.getEdges(junction)) speeds.add(road.getMaxSpeed());
+        }
+        assertEquals(Set.of(50, 80, 100, 120), speeds);
+
+        // a grid without redundant local roads has fewer roads than a complete grid
+        RoadMap sparse = new RoadNetworkGenerator(2500, 20211220L).setRedundancy(0.0).buildRoadMap();
+        RoadMap complete = new RoadNetworkGenerator(2500, 20211220L).setRedundancy(1.0).buildRoadMap();
+        assertTrue(sparse.getNumEdges() < roadMap.getNumEdges());
+        assertTrue(roadMap.getNumEdges() < complete.getNumEdges());
+        assertEquals(1, sparse.getComponentIndex().getNumStrongComponents());
+    }
+
+    @Test
+    void checkSettings() {
+        RoadMap roadMap = new RoadNetworkGenerator(400, 1L)
+                .setArea(0.0, 10.0, 0.0, 40.0)
+                .setSpeedClasses(List.of(
+                        new RoadNetworkGenerator.SpeedClass("L", 30, 1),
+                        new RoadNetworkGenerator.SpeedClass("H", 90, 4)))
+                .buildRoadMap();
+        Set<Integer> speeds = new TreeSet<>();
+        for (Junction junction : roadMap.getVertices()) {
+            assertTrue(junction.getLocationX() >= 0.0 && junction.getLocationX() <= 10.0);
+            assertTrue(junction.getLocationY() >= 0.0 && junction.getLocationY() <= 40.0);
+            for (Road road : roadMap.getEdges(junction)) speeds.add(road.getMaxSpeed());
+        }
+        assertEquals(Set.of(30, 90), speeds);
+
+        assertThrows(IllegalArgumentException.class, () -> new RoadNetworkGenerator(400, 1L)
+                .setSpeedClasses(List.of(new RoadNetworkGenerator.SpeedClass("H", 90, 4))));
+        assertThrows(IllegalArgumentException.class, () -> new RoadNetworkGenerator(400, 1L).setRedundancy(1.5));
+    }
+
+    @Test
+    void checkWriteCsv(@TempDir Path folder) throws IOException {
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(1000, 20211220L);
+        Path junctions = folder.resolve("Junctions.csv");
+        Path roads = folder.resolve("Roads.csv");
+        int numJunctions = generator.writeCsv(junctions, roads);
+
+        // the same seed writes the same files
+        Path otherJunctions = folder.resolve("Junctions2.csv");
+        Path otherRoads = folder.resolve("Roads2.csv");
+        new RoadNetworkGenerator(1000, 20211220L).writeCsv(otherJunctions, otherRoads);
+        assertEquals(-1L, Files.mismatch(junctions, otherJunctions));
+        assertEquals(-1L, Files.mismatch(roads, otherRoads));
+
+        // the files import into the same network as built directly
+        RoadMap imported = RoadMap.importFiles(junctions, roads);
+        RoadMap built = generator.buildRoadMap();
+        assertEquals(numJunctions, imported.getNumVertices());
+        assertEquals(built.getNumVertices(), imported.getNumVertices());
+        assertEquals(built.getNumEdges(), imported.getNumEdges());
+        Junction from = imported.getVertexById("J0-0");
+        assertNotNull(from);
+        assertEquals(built.getVertexById("J0-0").getLocationX(), from.getLocationX(), 0.001);
+        assertNotNull(imported.dijkstraShortestPath("J0-0", "J20-20", RoadMap.TRAVEL_TIME));
+    }
+}
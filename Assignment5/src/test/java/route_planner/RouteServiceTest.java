@@ -0,0 +1,86 @@
+package route_planner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteServiceTest {
+
+    RoadMap roadMap;
+    RouteService service;
+    HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RoadMap.reSeedRandomizer(20211220L);
+        roadMap = new RoadMap("Junctions.csv", "Roads.csv");
+        service = new RouteService(roadMap);
+        service.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private HttpResponse<String> get(String query) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + service.getPort() + query)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void checkRoute() throws Exception {
+        HttpResponse<String> response = get("/route?from=Amsterdam&to=Meppel&profile=" + RouteService.TIME);
+        assertEquals(200, response.statusCode());
+        double expected = roadMap.dijkstraShortestPath("Amsterdam", "Meppel",
+                r -> r.getLength() / r.getMaxSpeed()).getTotalWeight();
+        assertTrue(response.body().contains(String.format(java.util.Locale.ENGLISH, "\"weight\":%f", expected)),
+                response.body());
+        assertTrue(response.body().contains("\"junctions\":[\"Amsterdam\",\"Diemen\""), response.body());
+
+        // the original name of the travel time profile is still accepted
+        HttpResponse<String> alias = get("/route?from=Amsterdam&to=Meppel&profile=time");
+        assertEquals(200, alias.statusCode());
+        assertEquals(response.body(), alias.body());
+
+        assertEquals(404, get("/route?from=Amsterdam&to=Atlantis").statusCode());
+        assertEquals(400, get("/route?from=Amsterdam").statusCode());
+        assertEquals(400, get("/route?from=Amsterdam&to=Meppel&profile=scenic").statusCode());
+    }
+
+    @Test
+    void checkNearest() throws Exception {
+        Junction meppel = roadMap.getVertexById("Meppel");
+        HttpResponse<String> response = get(String.format(java.util.Locale.ENGLISH, "/nearest?x=%f&y=%f&k=3",
+                meppel.getLocationX(), meppel.getLocationY()));
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"junctions\":[{\"name\":\"Meppel\""), response.body());
+        assertEquals(400, get("/nearest?x=north&y=1").statusCode());
+        assertEquals(400, get("/nearest?x=1&y=1&k=0").statusCode());
+        assertEquals(400, get("/nearest?x=1&y=1&k=2.5").statusCode());
+
+        // a count beyond the number of junctions returns all junctions
+        response = get("/nearest?x=1&y=1&k=2000000000");
+        assertEquals(200, response.statusCode());
+        assertEquals(roadMap.getNumVertices(), response.body().split("\\{\"name\"").length - 1);
+    }
+
+    @Test
+    void checkLoadGenerator() throws Exception {
+        RouteLoadGenerator generator = new RouteLoadGenerator(URI.create("http://127.0.0.1:" + service.getPort()),
+                List.of("Amsterdam", "Meppel", "Maastricht", "Vlissingen", "Groningen"));
+        RouteLoadGenerator.Report report = generator.run(200, 8, RouteService.DISTANCE, 20211220L);
+        assertEquals(200, report.getNumRequests());
+        assertEquals(0, report.getNumErrors());
+        assertTrue(report.getThroughput() > 0.0);
+        assertTrue(report.getLatencyPercentile(50) <= report.getLatencyPercentile(99));
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import route_planner.Junction;
+import route_planner.RoadMap;
+import route_planner.RoadNetworkGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The road map that is searched by the benchmarks, with a fixed sequence of random routes through it.
+ * The network parameter is either "csv" for the bundled map of the Netherlands,
+ * or "grid:{junctions}", "geometric:{junctions}" or "planar:{junctions}" for a synthetic map of that size.
+ */
+@State(Scope.Benchmark)
+public class NetworkState {
+    static final long SEED = 20211220L;
+    private static final int NUM_ROUTES = 256;
+
+    @Param({"csv", "grid:10000", "geometric:10000", "grid:100000", "geometric:100000",
+            "planar:100000"})
+    public String network;
+
+    RoadMap roadMap;
+    private String[] fromIds;
+    private String[] toIds;
+    private int nextRoute = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.roadMap = build(this.network);
+        // build the component index in advance, which is used by all searches
+        this.roadMap.getComponentIndex();
+
+        List<Junction> junctions = new ArrayList<>(this.roadMap.getVertices());
+        Random randomizer = new Random(SEED);
+        this.fromIds = new String[NUM_ROUTES];
+        this.toIds = new String[NUM_ROUTES];
+        for (int r = 0; r < NUM_ROUTES; r++) {
+            this.fromIds[r] = junctions.get(randomizer.nextInt(junctions.size())).getId();
+            this.toIds[r] = junctions.get(randomizer.nextInt(junctions.size())).getId();
+        }
+    }
+
+    static RoadMap build(String network) {
+        if (network.equals("csv")) {
+            RoadMap.reSeedRandomizer(SEED);
+            return new RoadMap("Junctions.csv", "Roads.csv");
+        }
+        String[] parts = network.split(":");
+        int numJunctions = Integer.parseInt(parts[1]);
+        switch (parts[0]) {
+            case "grid":
+                return SyntheticNetworks.grid(numJunctions, SEED);
+            case "geometric":
+                return SyntheticNetworks.randomGeometric(numJunctions, 4, SEED);
+            case "planar":
+                return new RoadNetworkGenerator(numJunctions, SEED).buildRoadMap();
+            default:
+                throw new IllegalArgumentException("unknown network " + network);
+        }
+    }
+
+    /**
+     * advances to the next route of the sequence, which is repeated cyclically
+     */
+    void nextRoute() {
+        this.nextRoute = (this.nextRoute + 1) % NUM_ROUTES;
+    }
+
+    String fromId() {
+        return this.fromIds[this.nextRoute];
+    }
+
+    String toId() {
+        return this.toIds[this.nextRoute];
+    }
+}
@@ -0,0 +1,32 @@
+package benchmarks;
+
+import graphs.WeightProfile;
+import org.openjdk.jmh.annotations.*;
+import route_planner.Road;
+import route_planner.RoadMap;
+
+import java.util.function.Function;
+
+/**
+ * The weight profile of the weighted searches, both as a primitive profile and as a boxing function
+ */
+@State(Scope.Benchmark)
+public class ProfileState {
+
+    @Param({"distance", "travelTime"})
+    public String profile;
+
+    WeightProfile<Road> weightProfile;
+    Function<Road, Double> weightMapper;
+
+    @Setup(Level.Trial)
+    public void setUp(NetworkState network) {
+        this.weightProfile = this.profile.equals(RoadMap.DISTANCE.getName()) ? RoadMap.DISTANCE : RoadMap.TRAVEL_TIME;
+        WeightProfile<Road> weightProfile = this.weightProfile;
+        this.weightMapper = road -> weightProfile.applyAsDouble(road);
+
+        // materialize the weights of the profile in advance, instead of in the first measured search
+        String anyId = network.fromId();
+        network.roadMap.dijkstraShortestPath(anyId, anyId, this.weightProfile);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import route_planner.RoadMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the searches of DirectedGraph on the routes of a network, one route per operation.
+ * The unweighted searches run once per network, the weighted searches once per network and weight profile.
+ * Run with the gc profiler (the default of BenchmarkRunner) to measure the allocation rate per search.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SearchBenchmarks {
+
+    @Benchmark
+    public void depthFirstSearch(NetworkState state, Blackhole blackhole) {
+        state.nextRoute();
+        blackhole.consume(state.roadMap.depthFirstSearch(state.fromId(), state.toId()));
+    }
+
+    @Benchmark
+    public void breadthFirstSearch(NetworkState state, Blackhole blackhole) {
+        state.nextRoute();
+        blackhole.consume(state.roadMap.breadthFirstSearch(state.fromId(), state.toId()));
+    }
+
+    /**
+     * dijkstra search on the object graph, with a boxing function as edge weights
+     */
+    @Benchmark
+    public void dijkstra(NetworkState state, ProfileState profile, Blackhole blackhole) {
+        state.nextRoute();
+        blackhole.consume(state.roadMap.dijkstraShortestPath(state.fromId(), state.toId(), profile.weightMapper));
+    }
+
+    /**
+     * dijkstra search on the frozen copy of the map with the materialized weights of the profile
+     */
+    @Benchmark
+    public void dijkstraProfiled(NetworkState state, ProfileState profile, Blackhole blackhole) {
+        state.nextRoute();
+        blackhole.consume(state.roadMap.dijkstraShortestPath(state.fromId(), state.toId(), profile.weightProfile));
+    }
+
+    @Benchmark
+    public void bidirectionalDijkstra(NetworkState state, ProfileState profile, Blackhole blackhole) {
+        state.nextRoute();
+        blackhole.consume(state.roadMap.bidirectionalDijkstraShortestPath(
+                state.fromId(), state.toId(), profile.weightProfile));
+    }
+
+    @Benchmark
+    public void aStar(NetworkState state, ProfileState profile, Blackhole blackhole) {
+        RoadMap roadMap = state.roadMap;
+        state.nextRoute();
+        blackhole.consume(profile.weightProfile == RoadMap.DISTANCE
+                ? roadMap.aStarShortestPath(state.fromId(), state.toId())
+                : roadMap.aStarFastestRoute(state.fromId(), state.toId()));
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import route_planner.Junction;
+import route_planner.Road;
+import route_planner.RoadMap;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builders of synthetic road maps of arbitrary size, with junctions spread over the RD-coordinate range
+ * of the Netherlands and roads in the same bi-directional layout as the maps that are imported from csv files.
+ * All maps are reproducible from their seed.
+ */
+public class SyntheticNetworks {
+    static final double MIN_X = 10.0, MAX_X = 280.0;        // RD x-coordinate range in km
+    static final double MIN_Y = 300.0, MAX_Y = 620.0;       // RD y-coordinate range in km
+
+    private SyntheticNetworks() { }
+
+    /**
+     * builds a square grid of junctions with roads between horizontal and vertical neighbours
+     * every 10th row and column is a highway, every 5th a provincial road, the others are local roads
+     * @param numJunctions  the minimum number of junctions, rounded up to a square
+     * @param seed
+     * @return
+     */
+    public static RoadMap grid(int numJunctions, long seed) {
+        Random randomizer = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(numJunctions));
+        double spacingX = (MAX_X - MIN_X) / side;
+        double spacingY = (MAX_Y - MIN_Y) / side;
+
+        RoadMap roadMap = new RoadMap();
+        Junction[][] junctions = new Junction[side][side];
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                // jitter the junctions a little, such that the roads differ in length
+                junctions[row][col] = addJunction(roadMap, "G" + row + "_" + col,
+                        MIN_X + (col + 0.5 + 0.3 * (randomizer.nextDouble() - 0.5)) * spacingX,
+                        MIN_Y + (row + 0.5 + 0.3 * (randomizer.nextDouble() - 0.5)) * spacingY);
+            }
+        }
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                if (col + 1 < side) addRoad(roadMap, junctions[row][col], junctions[row][col + 1],
+                        speedClass(row), randomizer);
+                if (row + 1 < side) addRoad(roadMap, junctions[row][col], junctions[row + 1][col],
+                        speedClass(col), randomizer);
+            }
+        }
+        return roadMap;
+    }
+
+    private static int speedClass(int line) {
+        return line % 10 == 0 ? 100 : line % 5 == 0 ? 80 : 50;
+    }
+
+    /**
+     * builds a random geometric network: junctions at uniformly random locations,
+     * each connected by roads to its nearest neighbours
+     * the longer a road, the higher its speed limit
+     * @param numJunctions
+     * @param numNeighbours the number of nearest junctions that every junction is connected to
+     * @param seed
+     * @return
+     */
+    public static RoadMap randomGeometric(int numJunctions, int numNeighbours, long seed) {
+        Random randomizer = new Random(seed);
+        RoadMap roadMap = new RoadMap();
+        for (int j = 0; j < numJunctions; j++) {
+            addJunction(roadMap, "R" + j,
+                    MIN_X + randomizer.nextDouble() * (MAX_X - MIN_X),
+                    MIN_Y + randomizer.nextDouble() * (MAX_Y - MIN_Y));
+        }
+
+        // the typical distance between nearest neighbours, to classify the roads
+        double spacing = Math.sqrt((MAX_X - MIN_X) * (MAX_Y - MIN_Y) / numJunctions);
+        for (Junction junction : roadMap.getVertices()) {
+            List<Junction> nearest = roadMap.nearestJunctions(
+                    junction.getLocationX(), junction.getLocationY(), numNeighbours + 1);
+            for (Junction neighbour : nearest) {
+                if (neighbour == junction || roadMap.getEdge(junction, neighbour) != null) continue;
+                double distance = distance(junction, neighbour);
+                int maxSpeed = distance > 2.0 * spacing ? 100 : distance > spacing ? 80 : 50;
+                addRoad(roadMap, junction, neighbour, maxSpeed, randomizer);
+            }
+        }
+        return roadMap;
+    }
+
+    private static Junction addJunction(RoadMap roadMap, String name, double x, double y) {
+        Junction junction = new Junction(name);
+        junction.setLocationX(x);
+        junction.setLocationY(y);
+        return roadMap.addOrGetVertex(junction);
+    }
+
+    private static double distance(Junction from, Junction to) {
+        return Math.hypot(to.getLocationX() - from.getLocationX(), to.getLocationY() - from.getLocationY());
+    }
+
+    // adds road segments in both directions, with a length of 5 to 15% over the straight-line distance
+    private static void addRoad(RoadMap roadMap, Junction from, Junction to, int maxSpeed, Random randomizer) {
+        double distanceMultiplier = 1.05 + 0.1 * randomizer.nextDouble();
+        Road road = new Road("S" + maxSpeed, distanceMultiplier * distance(from, to), maxSpeed);
+        roadMap.addEdge(from, to, road);
+        roadMap.addEdge(to, from, new Road(road));
+    }
+}